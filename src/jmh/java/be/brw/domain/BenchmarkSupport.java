@@ -0,0 +1,81 @@
+package be.brw.domain;
+
+import be.brw.config.ConfigLoader;
+import be.brw.config.GAConfig;
+import be.brw.domain.strategy.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Shared fixtures for the JMH benchmarks: configurations and random genomes of a given size.
+ */
+final class BenchmarkSupport {
+
+    /**
+     * Seed used for every fixture so that all runs benchmark the same data.
+     */
+    static final int SEED = 42;
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Builds a configuration for a solution of {@code genomeLength} random genes.
+     * Genomes are generated within 10% of the solution length, so crossovers have leftovers.
+     */
+    static GAConfig config(int genomeLength, int populationSize, SelectionStrategy selectionStrategy, CrossoverStrategy crossoverStrategy, CrossoverLeftoverStrategy leftoverStrategy) {
+        Random random = new Random(SEED);
+        StringBuilder solution = new StringBuilder(genomeLength);
+        for (int i = 0; i < genomeLength; i++) {
+            solution.append(random.nextInt(2));
+        }
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("seed", SEED);
+        values.put("solution", solution.toString());
+        values.put("minGenomeLength", Math.max(2, genomeLength - genomeLength / 10));
+        values.put("maxGenomeLength", genomeLength + genomeLength / 10);
+        values.put("maxGeneration", 1);
+        values.put("populationSize", populationSize);
+        values.put("selectionStrategy", selectionStrategy.name());
+        values.put("tournamentSize", 4);
+        values.put("mutationTargetStrategy", MutationTargetStrategy.CHILDREN.name());
+        values.put("mutationRate", 0.3);
+        values.put("bitFlipRate", 0.8);
+        values.put("bitAddRate", 0.1);
+        values.put("bitRemoveRate", 0.1);
+        values.put("crossoverStrategy", crossoverStrategy.name());
+        values.put("crossoverRate", 0.7);
+        values.put("crossoverLeftoverStrategy", leftoverStrategy.name());
+        values.put("lengthPunishingStrategy", LengthPunishingStrategy.LINEAR.name());
+        values.put("lengthPunishingFactor", 0.5);
+        return ConfigLoader.fromMap(values);
+    }
+
+    /**
+     * Generates a random genome of exactly {@code length} genes.
+     */
+    static Genome randomGenome(Random random, int length) {
+        Genome genome = new Genome(length);
+        for (int i = 0; i < length; i++) {
+            genome.add((byte) random.nextInt(2));
+        }
+        return genome;
+    }
+
+    /**
+     * Generates {@code count} random individuals with genome lengths in {@code [minLength, maxLength]}.
+     */
+    static List<Individual> randomIndividuals(Random random, int count, int minLength, int maxLength) {
+        List<Individual> individuals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = minLength + random.nextInt(maxLength - minLength + 1);
+            individuals.add(new Individual(randomGenome(random, length)));
+        }
+        return individuals;
+    }
+}
@@ -0,0 +1,81 @@
+package be.brw.domain;
+
+import be.brw.config.GAConfig;
+import be.brw.domain.strategy.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares evolving one generation of a fixed-length, FLIP-only run on the bit-sliced store
+ * with the heap and arena engines.
+ * <p>
+ * The solution is one gene longer than every genome, so no individual can ever solve it and
+ * every invocation breeds a full generation.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BitSlicedGenerationBenchmark {
+
+    @Param({"heap", "arena", "bitSliced"})
+    private String engine;
+
+    @Param({"TWO_POINT", "UNIFORM"})
+    private CrossoverStrategy crossoverStrategy;
+
+    @Param({"8192", "65536"})
+    private int populationSize;
+
+    @Param({"64", "256"})
+    private int genomeLength;
+
+    private GeneticAlgorithm geneticAlgorithm;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(BenchmarkSupport.SEED);
+        byte[] solution = new byte[genomeLength + 1];
+        for (int i = 0; i < solution.length; i++) {
+            solution[i] = (byte) random.nextInt(2);
+        }
+        GAConfig.Builder builder = GAConfig.builder()
+                .seed(BenchmarkSupport.SEED)
+                .solution(solution)
+                .minGenomeLength(genomeLength)
+                .maxGenomeLength(genomeLength)
+                .populationSize(populationSize)
+                .maxGeneration(Integer.MAX_VALUE)
+                .selectionStrategy(SelectionStrategy.TOURNAMENT)
+                .tournamentSize(4)
+                .mutationTargetStrategy(MutationTargetStrategy.CHILDREN)
+                .mutationEngine(MutationEngine.BATCH)
+                .mutationRate(0.3)
+                .bitFlipRate(1)
+                .bitAddRate(0)
+                .bitRemoveRate(0)
+                .crossoverStrategy(crossoverStrategy)
+                .uniformCrossoverMode(UniformCrossoverMode.WORD_MASK)
+                .crossoverRate(0.7)
+                .crossoverLeftoverStrategy(CrossoverLeftoverStrategy.KEEP_ONE_OR_NOT_RANDOMLY)
+                .lengthPunishingStrategy(LengthPunishingStrategy.LINEAR)
+                .lengthPunishingFactor(0.5);
+        if (this.engine.equals("arena")) {
+            builder.arenaMode(true);
+        } else if (this.engine.equals("bitSliced")) {
+            builder.populationStorage(PopulationStorage.BIT_SLICED);
+        }
+        this.geneticAlgorithm = new GeneticAlgorithm(builder.build());
+    }
+
+    @Benchmark
+    public int generation() {
+        this.geneticAlgorithm.evolveUntil(this.geneticAlgorithm.getGenerationCount() + 1);
+        return this.geneticAlgorithm.getGenerationCount();
+    }
+}
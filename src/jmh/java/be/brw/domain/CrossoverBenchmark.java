@@ -0,0 +1,45 @@
+package be.brw.domain;
+
+import be.brw.config.GAConfig;
+import be.brw.domain.strategy.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link GeneticAlgorithm#crossover(Individual, Individual)} on two parents of different
+ * lengths, so every strategy also goes through leftover handling.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CrossoverBenchmark {
+
+    @Param({"ONE_POINT", "TWO_POINT", "UNIFORM", "ARITHMETIC"})
+    private CrossoverStrategy crossoverStrategy;
+
+    @Param({"64", "1024", "16384"})
+    private int genomeLength;
+
+    private GeneticAlgorithm geneticAlgorithm;
+    private Individual parent1;
+    private Individual parent2;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GAConfig config = BenchmarkSupport.config(genomeLength, 2, SelectionStrategy.ELITISM, crossoverStrategy, CrossoverLeftoverStrategy.KEEP_ALL_OR_NOTHING_RANDOMLY);
+        this.geneticAlgorithm = new GeneticAlgorithm(config);
+        Random random = new Random(BenchmarkSupport.SEED);
+        this.parent1 = new Individual(BenchmarkSupport.randomGenome(random, config.getMinGenomeLength()));
+        this.parent2 = new Individual(BenchmarkSupport.randomGenome(random, config.getMaxGenomeLength()));
+    }
+
+    @Benchmark
+    public Individual crossover() {
+        return this.geneticAlgorithm.crossover(this.parent1, this.parent2);
+    }
+}
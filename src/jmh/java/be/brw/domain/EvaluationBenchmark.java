@@ -0,0 +1,48 @@
+package be.brw.domain;
+
+import be.brw.config.GAConfig;
+import be.brw.domain.strategy.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Population#updateFitness(Genome)} rescanning a whole population.
+ * Every individual is marked dirty first, otherwise the unchanged genomes would be skipped.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int populationSize;
+
+    @Param({"64", "1024", "16384"})
+    private int genomeLength;
+
+    private Genome solution;
+    private Population population;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GAConfig config = BenchmarkSupport.config(genomeLength, populationSize, SelectionStrategy.ELITISM, CrossoverStrategy.ONE_POINT, CrossoverLeftoverStrategy.KEEP_ALL_OR_NOTHING_RANDOMLY);
+        this.solution = config.getPackedSolution();
+        List<Individual> individuals = BenchmarkSupport.randomIndividuals(new Random(BenchmarkSupport.SEED), populationSize, config.getMinGenomeLength(), config.getMaxGenomeLength());
+        this.population = new Population(this.solution, individuals, BenchmarkSupport.SEED, config.getLengthPunishingStrategy(), config.getLengthPunishingFactor());
+    }
+
+    @Benchmark
+    public Population updateFitness() {
+        for (Individual individual : this.population.getIndividuals()) {
+            individual.markDirty();
+        }
+        this.population.updateFitness(this.solution);
+        return this.population;
+    }
+}
@@ -0,0 +1,51 @@
+package be.brw.domain;
+
+import be.brw.config.GAConfig;
+import be.brw.domain.strategy.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link GeneticAlgorithm#processLeftovers} appending the tail of the longer parent.
+ * The child genome is modified in place, so each invocation starts from a fresh copy; the copy
+ * is part of the measured cost.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LeftoverBenchmark {
+
+    @Param({"KEEP_ALL_OR_NOTHING_RANDOMLY", "KEEP_ONE_OR_NOT_RANDOMLY", "KEEP_ONLY_FROM_FITTEST_PARENT"})
+    private CrossoverLeftoverStrategy leftoverStrategy;
+
+    @Param({"64", "1024", "16384"})
+    private int genomeLength;
+
+    private GeneticAlgorithm geneticAlgorithm;
+    private Individual parent1;
+    private Individual parent2;
+    private Genome childGenome;
+    private Genome leftovers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GAConfig config = BenchmarkSupport.config(genomeLength, 2, SelectionStrategy.ELITISM, CrossoverStrategy.UNIFORM, leftoverStrategy);
+        this.geneticAlgorithm = new GeneticAlgorithm(config);
+        Random random = new Random(BenchmarkSupport.SEED);
+        // The second parent is half again as long, so the leftovers are half a genome.
+        this.parent1 = new Individual(BenchmarkSupport.randomGenome(random, genomeLength), 1);
+        this.parent2 = new Individual(BenchmarkSupport.randomGenome(random, genomeLength + genomeLength / 2), 2);
+        this.childGenome = this.parent1.getPackedGenome().copy();
+        this.leftovers = this.parent2.getPackedGenome().subGenome(genomeLength, this.parent2.getGenomeLength());
+    }
+
+    @Benchmark
+    public Individual processLeftovers() {
+        return this.geneticAlgorithm.processLeftovers(leftoverStrategy, this.childGenome.copy(), this.leftovers, this.parent1, this.parent2);
+    }
+}
@@ -0,0 +1,42 @@
+package be.brw.domain;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar and Vector API {@link MatchKernel}s on a single pair of genomes.
+ * The forked JVM gets the incubator module, so both kernels can be loaded.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class MatchKernelBenchmark {
+
+    @Param({"scalar", "vector"})
+    private String kernel;
+
+    @Param({"64", "1024", "16384"})
+    private int genomeLength;
+
+    private MatchKernel matchKernel;
+    private long[] a;
+    private long[] b;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.matchKernel = this.kernel.equals("vector") ? new VectorMatchKernel() : MatchKernel.SCALAR;
+        Random random = new Random(BenchmarkSupport.SEED);
+        this.a = BenchmarkSupport.randomGenome(random, genomeLength).words();
+        this.b = BenchmarkSupport.randomGenome(random, genomeLength).words();
+    }
+
+    @Benchmark
+    public int countMatches() {
+        return this.matchKernel.countMatches(this.a, this.b, this.genomeLength);
+    }
+}
@@ -0,0 +1,39 @@
+package be.brw.domain;
+
+import be.brw.config.GAConfig;
+import be.brw.domain.strategy.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link GeneticAlgorithm#mutate(Individual)} on a single individual.
+ * ADD and REMOVE are equally likely, so the genome length stays around its starting value.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MutationBenchmark {
+
+    @Param({"64", "1024", "16384"})
+    private int genomeLength;
+
+    private GeneticAlgorithm geneticAlgorithm;
+    private Individual individual;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GAConfig config = BenchmarkSupport.config(genomeLength, 2, SelectionStrategy.ELITISM, CrossoverStrategy.ONE_POINT, CrossoverLeftoverStrategy.KEEP_ALL_OR_NOTHING_RANDOMLY);
+        this.geneticAlgorithm = new GeneticAlgorithm(config);
+        this.individual = new Individual(BenchmarkSupport.randomGenome(new Random(BenchmarkSupport.SEED), genomeLength));
+    }
+
+    @Benchmark
+    public Individual mutate() {
+        return this.geneticAlgorithm.mutate(this.individual);
+    }
+}
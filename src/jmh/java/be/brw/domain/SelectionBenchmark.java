@@ -0,0 +1,64 @@
+package be.brw.domain;
+
+import be.brw.config.GAConfig;
+import be.brw.domain.strategy.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link GeneticAlgorithm#selection(List, int)} picking the survivors of one generation.
+ * Genome length does not influence selection, so only the population size is varied.
+ * <p>
+ * ELITISM sorts the list it is given, so the evaluated population is copied back into the
+ * selected list before every invocation; otherwise every call after the first would sort
+ * input that is already sorted.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SelectionBenchmark {
+
+    @Param({"ELITISM", "ROULETTE", "TOURNAMENT"})
+    private SelectionStrategy selectionStrategy;
+
+    @Param({"100", "1000", "10000"})
+    private int populationSize;
+
+    private static final int GENOME_LENGTH = 64;
+
+    private GeneticAlgorithm geneticAlgorithm;
+    private List<Individual> population;
+    private List<Individual> individuals;
+    private int selectionSize;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GAConfig config = BenchmarkSupport.config(GENOME_LENGTH, 2, selectionStrategy, CrossoverStrategy.ONE_POINT, CrossoverLeftoverStrategy.KEEP_ALL_OR_NOTHING_RANDOMLY);
+        this.geneticAlgorithm = new GeneticAlgorithm(config);
+        this.population = BenchmarkSupport.randomIndividuals(new Random(BenchmarkSupport.SEED), populationSize, config.getMinGenomeLength(), config.getMaxGenomeLength());
+        new Population(config.getPackedSolution(), this.population, BenchmarkSupport.SEED, config.getLengthPunishingStrategy(), config.getLengthPunishingFactor());
+        this.individuals = new ArrayList<>(this.population);
+        this.selectionSize = (int) Math.round(populationSize * (1.0 - config.getCrossoverRate()));
+    }
+
+    @Setup(Level.Invocation)
+    public void restoreOrder() {
+        // Overwrites in place, so the setup does not allocate between invocations.
+        for (int i = 0; i < this.population.size(); i++) {
+            this.individuals.set(i, this.population.get(i));
+        }
+    }
+
+    @Benchmark
+    public List<Individual> selection() {
+        return this.geneticAlgorithm.selection(this.individuals, this.selectionSize);
+    }
+}
@@ -1,64 +1,62 @@
 package be.brw;
 
-import be.brw.config.ConfigLoader;
-import be.brw.config.GAConfig;
-import be.brw.domain.GeneticAlgorithm;
-import be.brw.domain.Individual;
+import be.brw.config.ParameterSweep;
 
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.*;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Iterator;
+import java.util.stream.LongStream;
 
 public class Check {
     public static void main(String[] args) {
-        Path configDir = Path.of("src/main/resources/configs"); // folder containing config_001.yaml, etc.
         Path logFile = Path.of("results.log");
+        // Number of configs run at the same time, one per core unless given as the first argument
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        // Sweep file listing the values to combine, sweep.yaml unless given as the second argument
+        Path sweepFile = Path.of(args.length > 1 ? args[1] : "src/main/resources/sweep.yaml");
 
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(logFile.toFile(), false))) {
             writer.write("===== Genetic Algorithm Benchmark =====\n");
             writer.write("Started at: " + LocalDateTime.now() + "\n\n");
 
-            // Find all YAML config files
-            List<Path> configs;
-            try (var stream = Files.list(configDir)) {
-                configs = stream
-                        .filter(p -> p.toString().endsWith(".yaml"))
-                        .sorted()
-                        .toList();
-            }
-
-            if (configs.isEmpty()) {
-                writer.write("No config files found in " + configDir.toAbsolutePath() + "\n");
-                return;
-            }
-
-            // Process each config file
-            for (Path configPath : configs) {
-                try {
-                    GAConfig config = ConfigLoader.fromYaml(configPath);
-                    GeneticAlgorithm ga = new GeneticAlgorithm(config);
-
-                    Individual result = ga.runAlgorithm();
-                    int generationCount = ga.getGenerationCount();
+            // Parse the sweep once; its configs are only built when a worker picks them up
+            ParameterSweep sweep = ParameterSweep.fromYaml(sweepFile);
+            writer.write("Sweep: " + sweepFile + " (" + sweep.size() + " configs)\n\n");
 
-                    String line = String.format(
-                            "[%s] Fitness=%d  Genomes=%s  Generations=%d%n",
-                            configPath.getFileName(),
-                            result.getFitness(),
-                            result.getGenome().toString(),
-                            generationCount
-                    );
+            // Run the configs concurrently; results still arrive in sweep order
+            Iterator<ExperimentRunner.Experiment> experiments = LongStream.range(0, sweep.size())
+                    .mapToObj(index -> new ExperimentRunner.Experiment(
+                            sweep.name(index),
+                            () -> sweep.config(index)))
+                    .iterator();
 
-                    writer.write(line);
-                    System.out.print(line);
+            try (ExperimentRunner runner = new ExperimentRunner(threads)) {
+                runner.run(experiments, result -> {
+                    if (result.succeeded()) {
+                        String line = String.format(
+                                "[%s] Fitness=%d  Genomes=%s  Generations=%d%n",
+                                result.name(),
+                                result.fittest().getFitness(),
+                                result.fittest().getGenome().toString(),
+                                result.generationCount()
+                        );
 
-                } catch (Exception e) {
-                    writer.write(String.format("[%s] FAILED: %s%n", configPath.getFileName(), e.getMessage()));
-                    System.err.printf("[%s] FAILED: %s%n", configPath.getFileName(), e.getMessage());
-                }
+                        writer.write(line);
+                        System.out.print(line);
+                        if (result.profile() != null) {
+                            // Per-phase totals of the run, when its config enables instrumentation
+                            String phases = String.format("    Phases: %s%n", result.profile());
+                            writer.write(phases);
+                            System.out.print(phases);
+                        }
+                    } else {
+                        writer.write(String.format("[%s] FAILED: %s%n", result.name(), result.error().getMessage()));
+                        System.err.printf("[%s] FAILED: %s%n", result.name(), result.error().getMessage());
+                    }
+                });
             }
 
             writer.write("\n===== End of Benchmark =====\n");
@@ -66,6 +64,9 @@ public class Check {
 
         } catch (IOException e) {
             System.err.println("Error during benchmark: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Benchmark interrupted");
         }
     }
 }
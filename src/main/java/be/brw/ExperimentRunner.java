@@ -0,0 +1,157 @@
+package be.brw;
+
+import be.brw.config.GAConfig;
+import be.brw.domain.GenerationProfile;
+import be.brw.domain.GeneticAlgorithm;
+import be.brw.domain.Individual;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a batch of genetic algorithm experiments concurrently on a fixed thread pool.
+ * <p>
+ * Every experiment loads its own configuration and runs its own {@link GeneticAlgorithm}, so a
+ * failure in one run is reported in its result instead of aborting the batch. Results are handed
+ * to the caller in submission order, whatever order the runs finish in, which keeps logs
+ * deterministic. At most a few runs per worker are in flight at once, so batches can be fed
+ * lazily without holding every pending result in memory.
+ * </p>
+ */
+public class ExperimentRunner implements AutoCloseable {
+
+    /**
+     * Number of pending runs allowed per worker thread before the runner waits for the oldest one.
+     */
+    private static final int RUNS_IN_FLIGHT_PER_THREAD = 4;
+
+    /**
+     * The pool that executes the runs.
+     */
+    private final ExecutorService executor;
+    /**
+     * The maximum number of submitted runs whose results have not been delivered yet.
+     */
+    private final int maxInFlight;
+
+    /**
+     * Constructs a runner with one worker per available processor.
+     */
+    public ExperimentRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a runner with a fixed number of worker threads.
+     *
+     * @param threads The number of runs executed at the same time.
+     */
+    public ExperimentRunner(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1: " + threads);
+        }
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.maxInFlight = threads * RUNS_IN_FLIGHT_PER_THREAD;
+    }
+
+    /**
+     * Runs every experiment and delivers the results, in order, on the calling thread.
+     *
+     * @param experiments The experiments to run, consumed lazily.
+     * @param sink Receives one result per experiment, in the order the experiments were given.
+     * @throws IOException if the sink fails to handle a result.
+     * @throws InterruptedException if the calling thread is interrupted while waiting for a run.
+     */
+    public void run(Iterator<Experiment> experiments, ResultSink sink) throws IOException, InterruptedException {
+        Deque<Future<ExperimentResult>> inFlight = new ArrayDeque<>(this.maxInFlight);
+        try {
+            while (experiments.hasNext()) {
+                Experiment experiment = experiments.next();
+                inFlight.addLast(this.executor.submit(() -> execute(experiment)));
+                if (inFlight.size() >= this.maxInFlight) {
+                    sink.accept(await(inFlight.removeFirst()));
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                sink.accept(await(inFlight.removeFirst()));
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Loads and runs a single experiment, capturing any failure in the result.
+     */
+    private static ExperimentResult execute(Experiment experiment) {
+        try {
+            GeneticAlgorithm ga = new GeneticAlgorithm(experiment.config().call());
+            Individual result = ga.runAlgorithm();
+            return new ExperimentResult(experiment.name(), result, ga.getGenerationCount(), ga.getProfile(), null);
+        } catch (Exception e) {
+            return new ExperimentResult(experiment.name(), null, 0, null, e);
+        }
+    }
+
+    private static ExperimentResult await(Future<ExperimentResult> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // execute() catches exceptions, so only errors end up here.
+            throw new IllegalStateException("Experiment run failed unexpectedly", e.getCause());
+        }
+    }
+
+    /**
+     * Stops the worker threads. Runs that are still executing are interrupted.
+     */
+    @Override
+    public void close() {
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * A named experiment whose configuration is loaded on the worker thread.
+     *
+     * @param name The name used to identify the experiment in the results.
+     * @param config Supplies the configuration; exceptions it throws are reported as a failed run.
+     */
+    public record Experiment(String name, Callable<GAConfig> config) {
+    }
+
+    /**
+     * The outcome of a single experiment.
+     *
+     * @param name The name of the experiment.
+     * @param fittest The fittest individual found, or {@code null} if the run failed.
+     * @param generationCount The number of generations the run took.
+     * @param profile The per-phase timers and counters, or {@code null} if instrumentation was disabled or the run failed.
+     * @param error The failure, or {@code null} if the run succeeded.
+     */
+    public record ExperimentResult(String name, Individual fittest, int generationCount, GenerationProfile profile, Exception error) {
+
+        /**
+         * Returns whether the run completed without an exception.
+         *
+         * @return {@code true} if the run succeeded.
+         */
+        public boolean succeeded() {
+            return this.error == null;
+        }
+    }
+
+    /**
+     * Receives experiment results in submission order.
+     */
+    @FunctionalInterface
+    public interface ResultSink {
+        void accept(ExperimentResult result) throws IOException;
+    }
+}
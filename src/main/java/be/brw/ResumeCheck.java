@@ -0,0 +1,118 @@
+package be.brw;
+
+import be.brw.config.GAConfig;
+import be.brw.domain.GeneticAlgorithm;
+import be.brw.domain.strategy.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.UnaryOperator;
+
+/**
+ * Checks that a run resumed from a checkpoint evolves exactly like a run that was never interrupted.
+ * <p>
+ * For every engine variant, one run evolves straight to the last generation, and another stops
+ * halfway, writes a checkpoint and is continued by a new {@link GeneticAlgorithm} from that file.
+ * Both write their state at the last generation; the two checkpoint files, holding the random
+ * state, the best individual so far and every genome and fitness, must be identical byte for byte.
+ * </p>
+ */
+public class ResumeCheck {
+
+    private static final int LAST_GENERATION = 40;
+    private static final int INTERRUPTED_GENERATION = LAST_GENERATION / 2;
+
+    public static void main(String[] args) {
+        Map<String, UnaryOperator<GAConfig.Builder>> variants = new LinkedHashMap<>();
+        variants.put("default", builder -> builder);
+        variants.put("elitism", builder -> builder.selectionStrategy(SelectionStrategy.ELITISM));
+        variants.put("roulette", builder -> builder.selectionStrategy(SelectionStrategy.ROULETTE));
+        variants.put("arena", builder -> builder.arenaMode(true));
+        variants.put("arena off-heap", builder -> builder.arenaMode(true).populationStorage(PopulationStorage.OFF_HEAP));
+        variants.put("parallel breeding", builder -> builder.parallelBreeding(true).breedingThreads(2));
+        variants.put("batch mutation", builder -> builder.mutationEngine(MutationEngine.BATCH));
+        variants.put("shared duplicates", builder -> builder.deduplicationStrategy(DeduplicationStrategy.SHARE_FITNESS));
+        variants.put("bit-sliced", builder -> builder.populationStorage(PopulationStorage.BIT_SLICED)
+                .minGenomeLength(256).maxGenomeLength(256).populationSize(256)
+                .bitFlipRate(1).bitAddRate(0).bitRemoveRate(0));
+
+        int failures = 0;
+        try {
+            Path directory = Files.createTempDirectory("resume-check");
+            for (Map.Entry<String, UnaryOperator<GAConfig.Builder>> variant : variants.entrySet()) {
+                GAConfig.Builder builder = variant.getValue().apply(baseConfig());
+                String result = check(builder, directory.resolve(variant.getKey().replace(' ', '-')));
+                if (!result.equals("OK")) {
+                    failures++;
+                }
+                System.out.printf("[%s] %s%n", variant.getKey(), result);
+            }
+        } catch (IOException e) {
+            System.err.println("Error during resume check: " + e.getMessage());
+            System.exit(1);
+        }
+        if (failures > 0) {
+            System.err.println(failures + " variant(s) did not resume exactly");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs a variant straight through and interrupted, and compares the final checkpoints.
+     */
+    private static String check(GAConfig.Builder builder, Path prefix) throws IOException {
+        Path straight = Path.of(prefix + "-straight.ckpt");
+        Path resumed = Path.of(prefix + "-resumed.ckpt");
+        // Checkpoints are written every INTERRUPTED_GENERATION generations, so both runs write the last one.
+        builder.checkpointInterval(INTERRUPTED_GENERATION);
+
+        GeneticAlgorithm straightRun = new GeneticAlgorithm(builder.maxGeneration(LAST_GENERATION).checkpointFile(straight.toString()).build());
+        straightRun.runAlgorithm();
+        if (straightRun.getGenerationCount() != LAST_GENERATION) {
+            return "SKIPPED: solved in generation " + straightRun.getGenerationCount();
+        }
+
+        new GeneticAlgorithm(builder.maxGeneration(INTERRUPTED_GENERATION).checkpointFile(resumed.toString()).build()).runAlgorithm();
+        GeneticAlgorithm resumedRun = new GeneticAlgorithm(builder.maxGeneration(LAST_GENERATION).checkpointResume(true).build());
+        resumedRun.runAlgorithm();
+
+        if (resumedRun.getGenerationCount() != LAST_GENERATION) {
+            return "MISMATCH: resumed run ended in generation " + resumedRun.getGenerationCount();
+        }
+        long mismatch = Files.mismatch(straight, resumed);
+        return mismatch < 0 ? "OK" : "MISMATCH: checkpoints differ from byte " + mismatch;
+    }
+
+    /**
+     * A problem too long to be solved within {@link #LAST_GENERATION} generations.
+     */
+    private static GAConfig.Builder baseConfig() {
+        Random random = new Random(42);
+        byte[] solution = new byte[256];
+        for (int i = 0; i < solution.length; i++) {
+            solution[i] = (byte) random.nextInt(2);
+        }
+        return GAConfig.builder()
+                .seed(42)
+                .solution(solution)
+                .minGenomeLength(200)
+                .maxGenomeLength(300)
+                .populationSize(200)
+                .selectionStrategy(SelectionStrategy.TOURNAMENT)
+                .tournamentSize(4)
+                .mutationTargetStrategy(MutationTargetStrategy.BOTH)
+                .mutationRate(0.3)
+                .bitFlipRate(0.8)
+                .bitAddRate(0.1)
+                .bitRemoveRate(0.1)
+                .crossoverStrategy(CrossoverStrategy.TWO_POINT)
+                .crossoverRate(0.7)
+                .crossoverLeftoverStrategy(CrossoverLeftoverStrategy.KEEP_ONE_OR_NOT_RANDOMLY)
+                .lengthPunishingStrategy(LengthPunishingStrategy.LINEAR)
+                .lengthPunishingFactor(0.5);
+    }
+}
@@ -1,5 +1,6 @@
 package be.brw.config;
 
+import be.brw.domain.FitnessFunction;
 import be.brw.domain.strategy.*;
 import org.yaml.snakeyaml.Yaml;
 
@@ -13,74 +14,176 @@ public class ConfigLoader {
     public static GAConfig fromYaml(Path path) throws IOException {
         Yaml yaml = new Yaml();
         try (BufferedReader reader = Files.newBufferedReader(path)) {
-            Map<String, Object> obj = yaml.load(reader);
-
-            int seed = Integer.parseInt(obj.get("seed").toString());
-            String solutionRaw = obj.get("solution").toString();
-
-            byte[] solution = new byte[solutionRaw.length()];
-            for(int i = 0; i < solutionRaw.length(); i++){
-                if(solutionRaw.charAt(i) == '0'){
-                    solution[i] = (byte) 0;
-                }
-                if(solutionRaw.charAt(i) == '1'){
-                    solution[i] = (byte) 1;
-                }
-            }
+            return fromMap(yaml.load(reader));
+        }
+    }
 
-            int minGenomeLength = Integer.parseInt(obj.get("minGenomeLength").toString());
-            int maxGenomeLength = Integer.parseInt(obj.get("maxGenomeLength").toString());
-            int maxGeneration = Integer.parseInt(obj.get("maxGeneration").toString());
-            int populationSize = Integer.parseInt(obj.get("populationSize").toString());
+    /**
+     * Builds a configuration from already parsed key/value pairs, using the same keys as the YAML files.
+     */
+    public static GAConfig fromMap(Map<String, Object> obj) {
+        int seed = Integer.parseInt(obj.get("seed").toString());
+        String solutionRaw = obj.get("solution").toString();
 
-            SelectionStrategy selectionStrategy = SelectionStrategy.valueOf(obj.get("selectionStrategy").toString());
-            int tournamentSize = -1;
-            if (selectionStrategy == SelectionStrategy.TOURNAMENT) {
-                tournamentSize = Integer.parseInt(obj.get("tournamentSize").toString());
+        byte[] solution = new byte[solutionRaw.length()];
+        for(int i = 0; i < solutionRaw.length(); i++){
+            if(solutionRaw.charAt(i) == '0'){
+                solution[i] = (byte) 0;
+            }
+            if(solutionRaw.charAt(i) == '1'){
+                solution[i] = (byte) 1;
             }
-            MutationTargetStrategy mutationTargetStrategy = MutationTargetStrategy.valueOf(obj.get("mutationTargetStrategy").toString());
+        }
+
+        int minGenomeLength = Integer.parseInt(obj.get("minGenomeLength").toString());
+        int maxGenomeLength = Integer.parseInt(obj.get("maxGenomeLength").toString());
+        int maxGeneration = Integer.parseInt(obj.get("maxGeneration").toString());
+        int populationSize = Integer.parseInt(obj.get("populationSize").toString());
 
-            double mutationRate = Double.parseDouble(obj.get("mutationRate").toString());
-            double bitFlipRate = Double.parseDouble(obj.get("bitFlipRate").toString());
-            double bitAddRate = Double.parseDouble(obj.get("bitAddRate").toString());
-            double bitRemoveRate = Double.parseDouble(obj.get("bitRemoveRate").toString());
+        SelectionStrategy selectionStrategy = SelectionStrategy.valueOf(obj.get("selectionStrategy").toString());
+        int tournamentSize = -1;
+        if (selectionStrategy == SelectionStrategy.TOURNAMENT) {
+            tournamentSize = Integer.parseInt(obj.get("tournamentSize").toString());
+        }
+        MutationTargetStrategy mutationTargetStrategy = MutationTargetStrategy.valueOf(obj.get("mutationTargetStrategy").toString());
 
-            double sum = bitFlipRate + bitAddRate + bitRemoveRate;
-            double epsilon = 1e-9;
+        double mutationRate = Double.parseDouble(obj.get("mutationRate").toString());
+        double bitFlipRate = Double.parseDouble(obj.get("bitFlipRate").toString());
+        double bitAddRate = Double.parseDouble(obj.get("bitAddRate").toString());
+        double bitRemoveRate = Double.parseDouble(obj.get("bitRemoveRate").toString());
+        // Optional batch mutation with geometric skips, PER_INDIVIDUAL by default
+        MutationEngine mutationEngine = MutationEngine.valueOf(obj.getOrDefault("mutationEngine", "PER_INDIVIDUAL").toString());
 
-            if (Math.abs(sum - 1.0) > epsilon) {
-                throw new IllegalArgumentException(
-                        String.format("Sum of bit mutation rates does not equal 1 (%.12f)", sum)
-                );
-            }
+        double sum = bitFlipRate + bitAddRate + bitRemoveRate;
+        double epsilon = 1e-9;
 
-            CrossoverStrategy crossoverStrategy = CrossoverStrategy.valueOf(obj.get("crossoverStrategy").toString());
-            double crossoverRate = Double.parseDouble(obj.get("crossoverRate").toString());
-            CrossoverLeftoverStrategy crossoverLeftoverStrategy = CrossoverLeftoverStrategy.valueOf(obj.get("crossoverLeftoverStrategy").toString());
-
-            LengthPunishingStrategy lengthPunishingStrategy = LengthPunishingStrategy.valueOf(obj.get("lengthPunishingStrategy").toString());
-            double lengthPunishingFactor = Double.parseDouble(obj.get("lengthPunishingFactor").toString());
-
-            return new GAConfig(
-                    seed,
-                    solution,
-                    minGenomeLength,
-                    maxGenomeLength,
-                    maxGeneration,
-                    populationSize,
-                    selectionStrategy,
-                    tournamentSize,
-                    mutationTargetStrategy,
-                    mutationRate,
-                    bitFlipRate,
-                    bitAddRate,
-                    bitRemoveRate,
-                    crossoverStrategy,
-                    crossoverRate,
-                    crossoverLeftoverStrategy,
-                    lengthPunishingStrategy,
-                    lengthPunishingFactor
+        if (Math.abs(sum - 1.0) > epsilon) {
+            throw new IllegalArgumentException(
+                    String.format("Sum of bit mutation rates does not equal 1 (%.12f)", sum)
             );
         }
+
+        CrossoverStrategy crossoverStrategy = CrossoverStrategy.valueOf(obj.get("crossoverStrategy").toString());
+        double crossoverRate = Double.parseDouble(obj.get("crossoverRate").toString());
+        // Optional word-at-a-time uniform crossover, BALANCED by default
+        UniformCrossoverMode uniformCrossoverMode = UniformCrossoverMode.valueOf(obj.getOrDefault("uniformCrossoverMode", "BALANCED").toString());
+        CrossoverLeftoverStrategy crossoverLeftoverStrategy = CrossoverLeftoverStrategy.valueOf(obj.get("crossoverLeftoverStrategy").toString());
+
+        LengthPunishingStrategy lengthPunishingStrategy = LengthPunishingStrategy.valueOf(obj.get("lengthPunishingStrategy").toString());
+        double lengthPunishingFactor = Double.parseDouble(obj.get("lengthPunishingFactor").toString());
+
+        // Optional fitness function, bitstring matching by default
+        String fitnessFunction = obj.getOrDefault("fitnessFunction", FitnessFunction.BITSTRING).toString();
+        int fitnessCacheSize = Integer.parseInt(obj.getOrDefault("fitnessCacheSize", 0).toString());
+
+        // Optional evaluation settings, sequential by default
+        boolean parallelEvaluation = Boolean.parseBoolean(obj.getOrDefault("parallelEvaluation", false).toString());
+        int parallelEvaluationThreshold = Integer.parseInt(obj.getOrDefault("parallelEvaluationThreshold", 1000).toString());
+        int evaluationThreads = Integer.parseInt(obj.getOrDefault("evaluationThreads", 0).toString());
+
+        // Optional breeding settings, sequential by default
+        boolean parallelBreeding = Boolean.parseBoolean(obj.getOrDefault("parallelBreeding", false).toString());
+        int breedingThreads = Integer.parseInt(obj.getOrDefault("breedingThreads", 0).toString());
+
+        // Optional engine mode, allocating a new generation each time by default
+        boolean arenaMode = Boolean.parseBoolean(obj.getOrDefault("arenaMode", false).toString());
+        // Optional off-heap genomes for the arena, or the bit-sliced engine, kept on the heap by default
+        PopulationStorage populationStorage = PopulationStorage.valueOf(obj.getOrDefault("populationStorage", "HEAP").toString());
+
+        // Optional handling of duplicate genomes, evaluated like any other individual by default
+        DeduplicationStrategy deduplicationStrategy = DeduplicationStrategy.valueOf(obj.getOrDefault("deduplicationStrategy", "NONE").toString());
+
+        // Optional island model, a single population by default
+        int islandCount = Integer.parseInt(obj.getOrDefault("islandCount", 1).toString());
+        int islandSize = Integer.parseInt(obj.getOrDefault("islandSize", populationSize / Math.max(1, islandCount)).toString());
+        int migrationInterval = Integer.parseInt(obj.getOrDefault("migrationInterval", 50).toString());
+        int migrationSize = Integer.parseInt(obj.getOrDefault("migrationSize", 2).toString());
+        MigrationTopology migrationTopology = MigrationTopology.valueOf(obj.getOrDefault("migrationTopology", "RING").toString());
+
+        // Optional per-phase timers and flight recorder events, disabled by default
+        boolean instrumentation = Boolean.parseBoolean(obj.getOrDefault("instrumentation", false).toString());
+
+        // Optional checkpoints, disabled unless a file is given
+        Object checkpointFileValue = obj.get("checkpointFile");
+        String checkpointFile = checkpointFileValue == null || checkpointFileValue.toString().isBlank() ? null : checkpointFileValue.toString();
+        int checkpointInterval = Integer.parseInt(obj.getOrDefault("checkpointInterval", 0).toString());
+        int checkpointSeconds = Integer.parseInt(obj.getOrDefault("checkpointSeconds", 0).toString());
+        boolean checkpointResume = Boolean.parseBoolean(obj.getOrDefault("checkpointResume", false).toString());
+
+        if (islandCount < 1 || migrationInterval < 1) {
+            throw new IllegalArgumentException(
+                    String.format("islandCount (%d) and migrationInterval (%d) must be at least 1", islandCount, migrationInterval)
+            );
+        }
+        if (checkpointFile != null && islandCount > 1) {
+            throw new IllegalArgumentException("Checkpoints are not supported with more than one island");
+        }
+        if (populationStorage == PopulationStorage.OFF_HEAP && !arenaMode) {
+            throw new IllegalArgumentException("populationStorage OFF_HEAP requires arenaMode");
+        }
+        if (populationStorage == PopulationStorage.BIT_SLICED) {
+            // The bit-sliced engine keeps 64 genomes of one length per word, and only breeds by tournament and FLIP.
+            if (minGenomeLength != maxGenomeLength || bitAddRate != 0 || bitRemoveRate != 0) {
+                throw new IllegalArgumentException("populationStorage BIT_SLICED requires minGenomeLength == maxGenomeLength, bitAddRate 0 and bitRemoveRate 0");
+            }
+            if (populationSize <= 0 || populationSize % 64 != 0) {
+                throw new IllegalArgumentException("populationStorage BIT_SLICED requires a populationSize that is a multiple of 64: " + populationSize);
+            }
+            if (selectionStrategy != SelectionStrategy.TOURNAMENT) {
+                throw new IllegalArgumentException("populationStorage BIT_SLICED requires TOURNAMENT selection");
+            }
+            if (crossoverStrategy == CrossoverStrategy.UNIFORM && uniformCrossoverMode != UniformCrossoverMode.WORD_MASK) {
+                throw new IllegalArgumentException("populationStorage BIT_SLICED requires uniformCrossoverMode WORD_MASK for UNIFORM crossover");
+            }
+            if (!FitnessFunction.BITSTRING.equals(fitnessFunction)) {
+                throw new IllegalArgumentException("populationStorage BIT_SLICED requires the BITSTRING fitnessFunction");
+            }
+            if (arenaMode || islandCount > 1 || deduplicationStrategy != DeduplicationStrategy.NONE) {
+                throw new IllegalArgumentException("populationStorage BIT_SLICED cannot be combined with arenaMode, islands or a deduplicationStrategy");
+            }
+        }
+
+        return GAConfig.builder()
+                .seed(seed)
+                .solution(solution)
+                .minGenomeLength(minGenomeLength)
+                .maxGenomeLength(maxGenomeLength)
+                .maxGeneration(maxGeneration)
+                .populationSize(populationSize)
+                .selectionStrategy(selectionStrategy)
+                .tournamentSize(tournamentSize)
+                .mutationTargetStrategy(mutationTargetStrategy)
+                .mutationRate(mutationRate)
+                .bitFlipRate(bitFlipRate)
+                .bitAddRate(bitAddRate)
+                .bitRemoveRate(bitRemoveRate)
+                .mutationEngine(mutationEngine)
+                .crossoverStrategy(crossoverStrategy)
+                .crossoverRate(crossoverRate)
+                .uniformCrossoverMode(uniformCrossoverMode)
+                .crossoverLeftoverStrategy(crossoverLeftoverStrategy)
+                .lengthPunishingStrategy(lengthPunishingStrategy)
+                .lengthPunishingFactor(lengthPunishingFactor)
+                .fitnessFunction(fitnessFunction)
+                .fitnessCacheSize(fitnessCacheSize)
+                .parallelEvaluation(parallelEvaluation)
+                .parallelEvaluationThreshold(parallelEvaluationThreshold)
+                .evaluationThreads(evaluationThreads)
+                .parallelBreeding(parallelBreeding)
+                .breedingThreads(breedingThreads)
+                .arenaMode(arenaMode)
+                .populationStorage(populationStorage)
+                .deduplicationStrategy(deduplicationStrategy)
+                .islandCount(islandCount)
+                .islandSize(islandSize)
+                .migrationInterval(migrationInterval)
+                .migrationSize(migrationSize)
+                .migrationTopology(migrationTopology)
+                .instrumentation(instrumentation)
+                .checkpointFile(checkpointFile)
+                .checkpointInterval(checkpointInterval)
+                .checkpointSeconds(checkpointSeconds)
+                .checkpointResume(checkpointResume)
+                .build();
     }
 }
@@ -1,7 +1,10 @@
 package be.brw.config;
 
+import be.brw.domain.FitnessFunction;
+import be.brw.domain.Genome;
 import be.brw.domain.strategy.*;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -10,6 +13,7 @@ public class GAConfig {
 
     private final int seed;
     private final byte[] solution;
+    private final Genome packedSolution;
     private final int minGenomeLength;
     private final int maxGenomeLength;
     private final int maxGeneration;
@@ -26,10 +30,12 @@ public class GAConfig {
     private final double bitFlipRate;
     private final double bitAddRate;
     private final double bitRemoveRate;
+    private final MutationEngine mutationEngine;
 
     // Crossover
     private final CrossoverStrategy crossoverStrategy;
     private final double crossoverRate;
+    private final UniformCrossoverMode uniformCrossoverMode;
 
     // Leftover
     private final CrossoverLeftoverStrategy crossoverLeftoverStrategy;
@@ -38,25 +44,185 @@ public class GAConfig {
     private final LengthPunishingStrategy lengthPunishingStrategy;
     private final double lengthPunishingFactor;
 
+    // Fitness
+    private final String fitnessFunction;
+    private final int fitnessCacheSize;
+
+    // Evaluation
+    private final boolean parallelEvaluation;
+    private final int parallelEvaluationThreshold;
+    private final int evaluationThreads;
+
+    // Breeding
+    private final boolean parallelBreeding;
+    private final int breedingThreads;
+
+    // Engine
+    private final boolean arenaMode;
+    private final PopulationStorage populationStorage;
+    private final DeduplicationStrategy deduplicationStrategy;
+
+    // Islands
+    private final int islandCount;
+    private final int islandSize;
+    private final int migrationInterval;
+    private final int migrationSize;
+    private final MigrationTopology migrationTopology;
+
+    // Instrumentation
+    private final boolean instrumentation;
+
+    // Checkpoints
+    private final String checkpointFile;
+    private final int checkpointInterval;
+    private final int checkpointSeconds;
+    private final boolean checkpointResume;
+
+    /**
+     * Creates a configuration with the given problem and operators; every other setting keeps the
+     * default of {@link Builder}.
+     */
     public GAConfig(int seed, byte[] solution, int minGenomeLength, int maxGenomeLength, int maxGeneration, int populationSize, SelectionStrategy selectionStrategy, int tournamentSize, MutationTargetStrategy mutationTargetStrategy, double mutationRate, double bitFlipRate, double bitAddRate, double bitRemoveRate, CrossoverStrategy crossoverStrategy, double crossoverRate, CrossoverLeftoverStrategy crossoverLeftoverStrategy, LengthPunishingStrategy lengthPunishingStrategy, double lengthPunishingFactor) {
-        this.seed = seed;
-        this.solution = solution;
-        this.minGenomeLength = minGenomeLength;
-        this.maxGenomeLength = maxGenomeLength;
-        this.maxGeneration = maxGeneration;
-        this.populationSize = populationSize;
-        this.selectionStrategy = selectionStrategy;
-        this.tournamentSize =  tournamentSize;
-        this.mutationTargetStrategy = mutationTargetStrategy;
-        this.mutationRate = mutationRate;
-        this.bitFlipRate = bitFlipRate;
-        this.bitAddRate = bitAddRate;
-        this.bitRemoveRate = bitRemoveRate;
-        this.crossoverStrategy = crossoverStrategy;
-        this.crossoverRate = crossoverRate;
-        this.crossoverLeftoverStrategy = crossoverLeftoverStrategy;
-        this.lengthPunishingStrategy = lengthPunishingStrategy;
-        this.lengthPunishingFactor = lengthPunishingFactor;
+        this(builder()
+                .seed(seed)
+                .solution(solution)
+                .minGenomeLength(minGenomeLength)
+                .maxGenomeLength(maxGenomeLength)
+                .maxGeneration(maxGeneration)
+                .populationSize(populationSize)
+                .selectionStrategy(selectionStrategy)
+                .tournamentSize(tournamentSize)
+                .mutationTargetStrategy(mutationTargetStrategy)
+                .mutationRate(mutationRate)
+                .bitFlipRate(bitFlipRate)
+                .bitAddRate(bitAddRate)
+                .bitRemoveRate(bitRemoveRate)
+                .crossoverStrategy(crossoverStrategy)
+                .crossoverRate(crossoverRate)
+                .crossoverLeftoverStrategy(crossoverLeftoverStrategy)
+                .lengthPunishingStrategy(lengthPunishingStrategy)
+                .lengthPunishingFactor(lengthPunishingFactor));
+    }
+
+    private GAConfig(Builder builder) {
+        if (builder.solution == null) {
+            throw new IllegalStateException("A solution is required");
+        }
+        this.seed = builder.seed;
+        this.solution = builder.solution;
+        this.packedSolution = builder.packedSolution != null ? builder.packedSolution : Genome.fromBytes(builder.solution);
+        this.minGenomeLength = builder.minGenomeLength;
+        this.maxGenomeLength = builder.maxGenomeLength;
+        this.maxGeneration = builder.maxGeneration;
+        this.populationSize = builder.populationSize;
+        this.selectionStrategy = builder.selectionStrategy;
+        this.tournamentSize = builder.tournamentSize;
+        this.mutationTargetStrategy = builder.mutationTargetStrategy;
+        this.mutationRate = builder.mutationRate;
+        this.bitFlipRate = builder.bitFlipRate;
+        this.bitAddRate = builder.bitAddRate;
+        this.bitRemoveRate = builder.bitRemoveRate;
+        this.mutationEngine = builder.mutationEngine;
+        this.crossoverStrategy = builder.crossoverStrategy;
+        this.crossoverRate = builder.crossoverRate;
+        this.uniformCrossoverMode = builder.uniformCrossoverMode;
+        this.crossoverLeftoverStrategy = builder.crossoverLeftoverStrategy;
+        this.lengthPunishingStrategy = builder.lengthPunishingStrategy;
+        this.lengthPunishingFactor = builder.lengthPunishingFactor;
+        this.fitnessFunction = builder.fitnessFunction;
+        this.fitnessCacheSize = builder.fitnessCacheSize;
+        this.parallelEvaluation = builder.parallelEvaluation;
+        this.parallelEvaluationThreshold = builder.parallelEvaluationThreshold;
+        this.evaluationThreads = builder.evaluationThreads;
+        this.parallelBreeding = builder.parallelBreeding;
+        this.breedingThreads = builder.breedingThreads;
+        this.arenaMode = builder.arenaMode;
+        this.populationStorage = builder.populationStorage;
+        this.deduplicationStrategy = builder.deduplicationStrategy;
+        this.islandCount = builder.islandCount;
+        this.islandSize = builder.islandSize > 0 ? builder.islandSize : builder.populationSize / Math.max(1, builder.islandCount);
+        this.migrationInterval = builder.migrationInterval;
+        this.migrationSize = builder.migrationSize;
+        this.migrationTopology = builder.migrationTopology;
+        this.instrumentation = builder.instrumentation;
+        this.checkpointFile = builder.checkpointFile;
+        this.checkpointInterval = builder.checkpointInterval;
+        this.checkpointSeconds = builder.checkpointSeconds;
+        this.checkpointResume = builder.checkpointResume;
+    }
+
+    /**
+     * Returns a builder with the defaults of the optional YAML keys, see {@link Builder}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns a builder holding every setting of this configuration, to derive a modified copy from.
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.seed = this.seed;
+        builder.solution = this.solution;
+        builder.packedSolution = this.packedSolution;
+        builder.minGenomeLength = this.minGenomeLength;
+        builder.maxGenomeLength = this.maxGenomeLength;
+        builder.maxGeneration = this.maxGeneration;
+        builder.populationSize = this.populationSize;
+        builder.selectionStrategy = this.selectionStrategy;
+        builder.tournamentSize = this.tournamentSize;
+        builder.mutationTargetStrategy = this.mutationTargetStrategy;
+        builder.mutationRate = this.mutationRate;
+        builder.bitFlipRate = this.bitFlipRate;
+        builder.bitAddRate = this.bitAddRate;
+        builder.bitRemoveRate = this.bitRemoveRate;
+        builder.mutationEngine = this.mutationEngine;
+        builder.crossoverStrategy = this.crossoverStrategy;
+        builder.crossoverRate = this.crossoverRate;
+        builder.uniformCrossoverMode = this.uniformCrossoverMode;
+        builder.crossoverLeftoverStrategy = this.crossoverLeftoverStrategy;
+        builder.lengthPunishingStrategy = this.lengthPunishingStrategy;
+        builder.lengthPunishingFactor = this.lengthPunishingFactor;
+        builder.fitnessFunction = this.fitnessFunction;
+        builder.fitnessCacheSize = this.fitnessCacheSize;
+        builder.parallelEvaluation = this.parallelEvaluation;
+        builder.parallelEvaluationThreshold = this.parallelEvaluationThreshold;
+        builder.evaluationThreads = this.evaluationThreads;
+        builder.parallelBreeding = this.parallelBreeding;
+        builder.breedingThreads = this.breedingThreads;
+        builder.arenaMode = this.arenaMode;
+        builder.populationStorage = this.populationStorage;
+        builder.deduplicationStrategy = this.deduplicationStrategy;
+        builder.islandCount = this.islandCount;
+        builder.islandSize = this.islandSize;
+        builder.migrationInterval = this.migrationInterval;
+        builder.migrationSize = this.migrationSize;
+        builder.migrationTopology = this.migrationTopology;
+        builder.instrumentation = this.instrumentation;
+        builder.checkpointFile = this.checkpointFile;
+        builder.checkpointInterval = this.checkpointInterval;
+        builder.checkpointSeconds = this.checkpointSeconds;
+        builder.checkpointResume = this.checkpointResume;
+        return builder;
+    }
+
+    /**
+     * Returns the configuration of a single island: the same problem and operators, with its own
+     * seed and population size, and no islands of its own. The packed solution is shared.
+     */
+    public GAConfig forIsland(int seed, int populationSize) {
+        // Islands are never checkpointed on their own.
+        return this.toBuilder()
+                .seed(seed)
+                .populationSize(populationSize)
+                .islandCount(1)
+                .islandSize(populationSize)
+                .checkpointFile(null)
+                .checkpointInterval(0)
+                .checkpointSeconds(0)
+                .checkpointResume(false)
+                .build();
     }
 
     public int getSeed(){
@@ -71,6 +237,16 @@ public class GAConfig {
         return solution;
     }
 
+    /**
+     * Returns the solution as a packed genome.
+     * <p>
+     * Note: The same instance is returned on every call and must not be modified.
+     * </p>
+     */
+    public Genome getPackedSolution() {
+        return packedSolution;
+    }
+
     public int getMinGenomeLength() {
         return minGenomeLength;
     }
@@ -113,6 +289,10 @@ public class GAConfig {
         return bitRemoveRate;
     }
 
+    public MutationEngine getMutationEngine() {
+        return mutationEngine;
+    }
+
     public CrossoverStrategy getCrossoverStrategy() {
         return crossoverStrategy;
     }
@@ -121,6 +301,10 @@ public class GAConfig {
         return crossoverRate;
     }
 
+    public UniformCrossoverMode getUniformCrossoverMode() {
+        return uniformCrossoverMode;
+    }
+
     public CrossoverLeftoverStrategy getCrossoverLeftoverStrategy() {
         return crossoverLeftoverStrategy;
     }
@@ -133,6 +317,159 @@ public class GAConfig {
         return lengthPunishingFactor;
     }
 
+    /**
+     * Returns the fitness function: {@code BITSTRING} or the name of a class implementing
+     * {@link be.brw.domain.FitnessFunction}.
+     */
+    public String getFitnessFunction() {
+        return fitnessFunction;
+    }
+
+    /**
+     * Returns the number of genomes whose fitness is remembered between evaluations; 0 disables the cache.
+     * Only a custom {@link #getFitnessFunction() fitness function} is cached: the built-in bitstring
+     * fitness is scored incrementally, which is cheaper than a lookup.
+     */
+    public int getFitnessCacheSize() {
+        return fitnessCacheSize;
+    }
+
+    public boolean isParallelEvaluation() {
+        return parallelEvaluation;
+    }
+
+    public int getParallelEvaluationThreshold() {
+        return parallelEvaluationThreshold;
+    }
+
+    /**
+     * Returns the number of worker threads for parallel evaluation; 0 or less means the common pool.
+     */
+    public int getEvaluationThreads() {
+        return evaluationThreads;
+    }
+
+    /**
+     * Returns whether children are bred in parallel, each from its own random number generator.
+     */
+    public boolean isParallelBreeding() {
+        return parallelBreeding;
+    }
+
+    /**
+     * Returns the number of worker threads for parallel breeding; 0 or less means the common pool.
+     */
+    public int getBreedingThreads() {
+        return breedingThreads;
+    }
+
+    /**
+     * Returns whether the engine reuses two preallocated generations instead of allocating a new one each time.
+     */
+    public boolean isArenaMode() {
+        return arenaMode;
+    }
+
+    /**
+     * Returns where the genes are kept: in a heap array per genome, in off-heap slots of the arena
+     * (OFF_HEAP), or transposed, 64 genomes per word, by the bit-sliced engine (BIT_SLICED).
+     */
+    public PopulationStorage getPopulationStorage() {
+        return populationStorage;
+    }
+
+    /**
+     * Returns what happens to individuals whose genome duplicates another one of the same new generation.
+     */
+    public DeduplicationStrategy getDeduplicationStrategy() {
+        return deduplicationStrategy;
+    }
+
+    public int getIslandCount() {
+        return islandCount;
+    }
+
+    public int getIslandSize() {
+        return islandSize;
+    }
+
+    public int getMigrationInterval() {
+        return migrationInterval;
+    }
+
+    public int getMigrationSize() {
+        return migrationSize;
+    }
+
+    public MigrationTopology getMigrationTopology() {
+        return migrationTopology;
+    }
+
+    /**
+     * Returns whether every generation records per-phase timers and counters, see {@link be.brw.domain.GenerationProfile}.
+     */
+    public boolean isInstrumentation() {
+        return instrumentation;
+    }
+
+    /**
+     * Returns the file checkpoints are written to, or {@code null} if the run is not checkpointed.
+     */
+    public String getCheckpointFile() {
+        return checkpointFile;
+    }
+
+    /**
+     * Returns the number of generations between two checkpoints, or 0 to not count generations.
+     */
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * Returns the minimum number of seconds between two checkpoints, or 0 to not count time.
+     */
+    public int getCheckpointSeconds() {
+        return checkpointSeconds;
+    }
+
+    /**
+     * Returns whether a run continues from the checkpoint file if it exists.
+     */
+    public boolean isCheckpointResume() {
+        return checkpointResume;
+    }
+
+    /**
+     * Returns a hash of the settings that decide how a population evolves, so that a checkpoint
+     * is only resumed under the configuration that wrote it. Settings that only change how fast
+     * a run goes or when it ends, such as the maximum generation, thread counts, caching, heap or
+     * off-heap storage, instrumentation and checkpoints, are left out; the bit-sliced engine breeds
+     * differently, so it is part of the hash.
+     *
+     * @return A 64-bit FNV-1a hash of the evolution settings.
+     */
+    public long getEvolutionHash() {
+        String settings = String.join(",",
+                String.valueOf(seed), Arrays.toString(solution),
+                String.valueOf(minGenomeLength), String.valueOf(maxGenomeLength), String.valueOf(populationSize),
+                String.valueOf(selectionStrategy), String.valueOf(tournamentSize),
+                String.valueOf(mutationTargetStrategy), String.valueOf(mutationRate), String.valueOf(bitFlipRate),
+                String.valueOf(bitAddRate), String.valueOf(bitRemoveRate), String.valueOf(mutationEngine),
+                String.valueOf(crossoverStrategy), String.valueOf(crossoverRate), String.valueOf(uniformCrossoverMode),
+                String.valueOf(crossoverLeftoverStrategy),
+                String.valueOf(lengthPunishingStrategy), String.valueOf(lengthPunishingFactor),
+                String.valueOf(fitnessFunction), String.valueOf(parallelBreeding), String.valueOf(arenaMode),
+                String.valueOf(deduplicationStrategy), String.valueOf(islandCount),
+                String.valueOf(populationStorage == PopulationStorage.BIT_SLICED)
+        );
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : settings.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
     @Override
     public String toString() {
         return "GAConfig{" +
@@ -149,11 +486,320 @@ public class GAConfig {
                 ", bitFlipRate=" + bitFlipRate +
                 ", bitAddRate=" + bitAddRate +
                 ", bitRemoveRate=" + bitRemoveRate +
+                ", mutationEngine=" + mutationEngine +
                 ", crossoverStrategy=" + crossoverStrategy +
                 ", crossoverRate=" + crossoverRate +
+                ", uniformCrossoverMode=" + uniformCrossoverMode +
                 ", crossoverLeftoverStrategy=" + crossoverLeftoverStrategy +
                 ", lengthPunishingStrategy=" + lengthPunishingStrategy +
                 ", lengthPunishingFactor=" + lengthPunishingFactor +
+                ", fitnessFunction=" + fitnessFunction +
+                ", fitnessCacheSize=" + fitnessCacheSize +
+                ", parallelEvaluation=" + parallelEvaluation +
+                ", parallelEvaluationThreshold=" + parallelEvaluationThreshold +
+                ", evaluationThreads=" + evaluationThreads +
+                ", parallelBreeding=" + parallelBreeding +
+                ", breedingThreads=" + breedingThreads +
+                ", arenaMode=" + arenaMode +
+                ", populationStorage=" + populationStorage +
+                ", deduplicationStrategy=" + deduplicationStrategy +
+                ", islandCount=" + islandCount +
+                ", islandSize=" + islandSize +
+                ", migrationInterval=" + migrationInterval +
+                ", migrationSize=" + migrationSize +
+                ", migrationTopology=" + migrationTopology +
+                ", instrumentation=" + instrumentation +
+                ", checkpointFile=" + checkpointFile +
+                ", checkpointInterval=" + checkpointInterval +
+                ", checkpointSeconds=" + checkpointSeconds +
+                ", checkpointResume=" + checkpointResume +
                 '}';
     }
+
+    /**
+     * Builds a {@link GAConfig} one setting at a time.
+     * <p>
+     * Settings that are optional in the YAML files start at the same defaults as in
+     * {@link ConfigLoader}: sequential evaluation and breeding, a single island, no cache, no
+     * instrumentation and no checkpoints. The island size defaults to the population size divided
+     * by the island count. New settings are added here with a default, so existing callers keep
+     * compiling.
+     * </p>
+     */
+    public static final class Builder {
+
+        private int seed;
+        private byte[] solution;
+        private Genome packedSolution;
+        private int minGenomeLength;
+        private int maxGenomeLength;
+        private int maxGeneration;
+        private int populationSize;
+
+        // Selection
+        private SelectionStrategy selectionStrategy;
+        private int tournamentSize = -1;
+
+        // Mutation
+        private MutationTargetStrategy mutationTargetStrategy;
+        private double mutationRate;
+        private double bitFlipRate;
+        private double bitAddRate;
+        private double bitRemoveRate;
+        private MutationEngine mutationEngine = MutationEngine.PER_INDIVIDUAL;
+
+        // Crossover
+        private CrossoverStrategy crossoverStrategy;
+        private double crossoverRate;
+        private UniformCrossoverMode uniformCrossoverMode = UniformCrossoverMode.BALANCED;
+
+        // Leftover
+        private CrossoverLeftoverStrategy crossoverLeftoverStrategy;
+
+        // Punisher
+        private LengthPunishingStrategy lengthPunishingStrategy;
+        private double lengthPunishingFactor;
+
+        // Fitness
+        private String fitnessFunction = FitnessFunction.BITSTRING;
+        private int fitnessCacheSize;
+
+        // Evaluation
+        private boolean parallelEvaluation;
+        private int parallelEvaluationThreshold = 1000;
+        private int evaluationThreads;
+
+        // Breeding
+        private boolean parallelBreeding;
+        private int breedingThreads;
+
+        // Engine
+        private boolean arenaMode;
+        private PopulationStorage populationStorage = PopulationStorage.HEAP;
+        private DeduplicationStrategy deduplicationStrategy = DeduplicationStrategy.NONE;
+
+        // Islands
+        private int islandCount = 1;
+        private int islandSize;
+        private int migrationInterval = 50;
+        private int migrationSize = 2;
+        private MigrationTopology migrationTopology = MigrationTopology.RING;
+
+        // Instrumentation
+        private boolean instrumentation;
+
+        // Checkpoints
+        private String checkpointFile;
+        private int checkpointInterval;
+        private int checkpointSeconds;
+        private boolean checkpointResume;
+
+        private Builder() {
+        }
+
+        public Builder seed(int seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder solution(byte[] solution) {
+            this.solution = solution;
+            this.packedSolution = null;
+            return this;
+        }
+
+        public Builder minGenomeLength(int minGenomeLength) {
+            this.minGenomeLength = minGenomeLength;
+            return this;
+        }
+
+        public Builder maxGenomeLength(int maxGenomeLength) {
+            this.maxGenomeLength = maxGenomeLength;
+            return this;
+        }
+
+        public Builder maxGeneration(int maxGeneration) {
+            this.maxGeneration = maxGeneration;
+            return this;
+        }
+
+        public Builder populationSize(int populationSize) {
+            this.populationSize = populationSize;
+            return this;
+        }
+
+        public Builder selectionStrategy(SelectionStrategy selectionStrategy) {
+            this.selectionStrategy = selectionStrategy;
+            return this;
+        }
+
+        public Builder tournamentSize(int tournamentSize) {
+            this.tournamentSize = tournamentSize;
+            return this;
+        }
+
+        public Builder mutationTargetStrategy(MutationTargetStrategy mutationTargetStrategy) {
+            this.mutationTargetStrategy = mutationTargetStrategy;
+            return this;
+        }
+
+        public Builder mutationRate(double mutationRate) {
+            this.mutationRate = mutationRate;
+            return this;
+        }
+
+        public Builder bitFlipRate(double bitFlipRate) {
+            this.bitFlipRate = bitFlipRate;
+            return this;
+        }
+
+        public Builder bitAddRate(double bitAddRate) {
+            this.bitAddRate = bitAddRate;
+            return this;
+        }
+
+        public Builder bitRemoveRate(double bitRemoveRate) {
+            this.bitRemoveRate = bitRemoveRate;
+            return this;
+        }
+
+        public Builder mutationEngine(MutationEngine mutationEngine) {
+            this.mutationEngine = mutationEngine;
+            return this;
+        }
+
+        public Builder crossoverStrategy(CrossoverStrategy crossoverStrategy) {
+            this.crossoverStrategy = crossoverStrategy;
+            return this;
+        }
+
+        public Builder crossoverRate(double crossoverRate) {
+            this.crossoverRate = crossoverRate;
+            return this;
+        }
+
+        public Builder uniformCrossoverMode(UniformCrossoverMode uniformCrossoverMode) {
+            this.uniformCrossoverMode = uniformCrossoverMode;
+            return this;
+        }
+
+        public Builder crossoverLeftoverStrategy(CrossoverLeftoverStrategy crossoverLeftoverStrategy) {
+            this.crossoverLeftoverStrategy = crossoverLeftoverStrategy;
+            return this;
+        }
+
+        public Builder lengthPunishingStrategy(LengthPunishingStrategy lengthPunishingStrategy) {
+            this.lengthPunishingStrategy = lengthPunishingStrategy;
+            return this;
+        }
+
+        public Builder lengthPunishingFactor(double lengthPunishingFactor) {
+            this.lengthPunishingFactor = lengthPunishingFactor;
+            return this;
+        }
+
+        public Builder fitnessFunction(String fitnessFunction) {
+            this.fitnessFunction = fitnessFunction;
+            return this;
+        }
+
+        public Builder fitnessCacheSize(int fitnessCacheSize) {
+            this.fitnessCacheSize = fitnessCacheSize;
+            return this;
+        }
+
+        public Builder parallelEvaluation(boolean parallelEvaluation) {
+            this.parallelEvaluation = parallelEvaluation;
+            return this;
+        }
+
+        public Builder parallelEvaluationThreshold(int parallelEvaluationThreshold) {
+            this.parallelEvaluationThreshold = parallelEvaluationThreshold;
+            return this;
+        }
+
+        public Builder evaluationThreads(int evaluationThreads) {
+            this.evaluationThreads = evaluationThreads;
+            return this;
+        }
+
+        public Builder parallelBreeding(boolean parallelBreeding) {
+            this.parallelBreeding = parallelBreeding;
+            return this;
+        }
+
+        public Builder breedingThreads(int breedingThreads) {
+            this.breedingThreads = breedingThreads;
+            return this;
+        }
+
+        public Builder arenaMode(boolean arenaMode) {
+            this.arenaMode = arenaMode;
+            return this;
+        }
+
+        public Builder populationStorage(PopulationStorage populationStorage) {
+            this.populationStorage = populationStorage;
+            return this;
+        }
+
+        public Builder deduplicationStrategy(DeduplicationStrategy deduplicationStrategy) {
+            this.deduplicationStrategy = deduplicationStrategy;
+            return this;
+        }
+
+        public Builder islandCount(int islandCount) {
+            this.islandCount = islandCount;
+            return this;
+        }
+
+        public Builder islandSize(int islandSize) {
+            this.islandSize = islandSize;
+            return this;
+        }
+
+        public Builder migrationInterval(int migrationInterval) {
+            this.migrationInterval = migrationInterval;
+            return this;
+        }
+
+        public Builder migrationSize(int migrationSize) {
+            this.migrationSize = migrationSize;
+            return this;
+        }
+
+        public Builder migrationTopology(MigrationTopology migrationTopology) {
+            this.migrationTopology = migrationTopology;
+            return this;
+        }
+
+        public Builder instrumentation(boolean instrumentation) {
+            this.instrumentation = instrumentation;
+            return this;
+        }
+
+        public Builder checkpointFile(String checkpointFile) {
+            this.checkpointFile = checkpointFile;
+            return this;
+        }
+
+        public Builder checkpointInterval(int checkpointInterval) {
+            this.checkpointInterval = checkpointInterval;
+            return this;
+        }
+
+        public Builder checkpointSeconds(int checkpointSeconds) {
+            this.checkpointSeconds = checkpointSeconds;
+            return this;
+        }
+
+        public Builder checkpointResume(boolean checkpointResume) {
+            this.checkpointResume = checkpointResume;
+            return this;
+        }
+
+        public GAConfig build() {
+            return new GAConfig(this);
+        }
+    }
 }
@@ -0,0 +1,230 @@
+package be.brw.config;
+
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * A grid of configurations, defined by a single YAML file and expanded on demand.
+ * <p>
+ * A sweep file uses the same keys as a configuration file. A key with a single value is shared
+ * by every configuration; a key with a list of values, or a range written as
+ * {@code {from: 0.1, to: 0.5, step: 0.1}}, is swept. The sweep holds every combination of the
+ * swept values, the last swept key varying fastest, e.g.:
+ * </p>
+ * <pre>
+ * populationSize: {from: 100, to: 500, step: 100}
+ * selectionStrategy: [ELITISM, ROULETTE, TOURNAMENT]
+ * mutationRate: 0.3
+ * </pre>
+ * <p>
+ * Configurations are only built when asked for, one key/value map at a time, through
+ * {@link ConfigLoader#fromMap}, so a sweep of any size costs a single file parse and no more
+ * memory than its value lists. Range values are computed in decimal, so a step of 0.1 gives
+ * 0.3 rather than 0.30000000000000004.
+ * </p>
+ */
+public class ParameterSweep {
+
+    /**
+     * The keys that are the same in every configuration, with their value.
+     */
+    private final Map<String, Object> fixed;
+    /**
+     * The swept keys, in file order.
+     */
+    private final List<Axis> axes;
+    /**
+     * The number of configurations, the product of the axis sizes.
+     */
+    private final long size;
+
+    /**
+     * Builds a sweep from already parsed key/value pairs, using the same keys as the YAML files.
+     *
+     * @param obj The shared values, value lists and ranges, by key.
+     * @throws IllegalArgumentException if a list is empty, a range is malformed or has more than {@link Integer#MAX_VALUE} values, or the sweep holds more than {@link Long#MAX_VALUE} configurations.
+     */
+    public ParameterSweep(Map<String, Object> obj) {
+        this.fixed = new LinkedHashMap<>();
+        this.axes = new ArrayList<>();
+        long size = 1;
+        for (Map.Entry<String, Object> entry : obj.entrySet()) {
+            Axis axis;
+            if (entry.getValue() instanceof List<?> values) {
+                axis = new ValueList(entry.getKey(), new ArrayList<>(values));
+            } else if (entry.getValue() instanceof Map<?, ?> range) {
+                axis = Range.of(entry.getKey(), range);
+            } else {
+                this.fixed.put(entry.getKey(), entry.getValue());
+                continue;
+            }
+            if (axis.size() == 0) {
+                throw new IllegalArgumentException("Sweep of " + entry.getKey() + " has no values");
+            }
+            this.axes.add(axis);
+            if (size > Long.MAX_VALUE / axis.size()) {
+                throw new IllegalArgumentException("Sweep holds more than " + Long.MAX_VALUE + " configs");
+            }
+            size *= axis.size();
+        }
+        this.size = size;
+    }
+
+    /**
+     * Reads a sweep file.
+     *
+     * @param path The sweep file.
+     * @return The sweep, not expanded yet.
+     * @throws IOException if the file cannot be read.
+     */
+    public static ParameterSweep fromYaml(Path path) throws IOException {
+        Yaml yaml = new Yaml();
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            return new ParameterSweep(yaml.load(reader));
+        }
+    }
+
+    /**
+     * Returns the number of configurations in the sweep.
+     *
+     * @return The product of the number of values of every swept key.
+     */
+    public long size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the key/value pairs of a configuration.
+     *
+     * @param index The index of the configuration, from 0 to {@link #size()} exclusive.
+     * @return A new map with the shared values and this configuration's swept values.
+     */
+    public Map<String, Object> values(long index) {
+        Map<String, Object> values = new LinkedHashMap<>(this.fixed);
+        long remaining = this.checkIndex(index);
+        for (int a = this.axes.size() - 1; a >= 0; a--) {
+            Axis axis = this.axes.get(a);
+            values.put(axis.key(), axis.value((int) (remaining % axis.size())));
+            remaining /= axis.size();
+        }
+        return values;
+    }
+
+    /**
+     * Builds a configuration.
+     *
+     * @param index The index of the configuration, from 0 to {@link #size()} exclusive.
+     * @return The configuration, validated like one loaded from a file.
+     * @throws IllegalArgumentException if the combination of values is not a valid configuration.
+     */
+    public GAConfig config(long index) {
+        return ConfigLoader.fromMap(this.values(index));
+    }
+
+    /**
+     * Names a configuration after its swept values, e.g. {@code selectionStrategy=ELITISM, mutationRate=0.3}.
+     *
+     * @param index The index of the configuration, from 0 to {@link #size()} exclusive.
+     * @return The swept keys and their values, or {@code "base"} if nothing is swept.
+     */
+    public String name(long index) {
+        if (this.axes.isEmpty()) {
+            this.checkIndex(index);
+            return "base";
+        }
+        Map<String, Object> values = this.values(index);
+        StringBuilder name = new StringBuilder();
+        for (Axis axis : this.axes) {
+            if (!name.isEmpty()) {
+                name.append(", ");
+            }
+            name.append(axis.key()).append('=').append(values.get(axis.key()));
+        }
+        return name.toString();
+    }
+
+    /**
+     * Returns every configuration of the sweep, in order. Each one is built when the stream reaches it.
+     *
+     * @return A lazy, sequential stream of {@link #size()} configurations.
+     */
+    public Stream<GAConfig> configs() {
+        return LongStream.range(0, this.size).mapToObj(this::config);
+    }
+
+    private long checkIndex(long index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+        return index;
+    }
+
+    /**
+     * A swept key and the values it takes.
+     */
+    private interface Axis {
+        String key();
+
+        int size();
+
+        Object value(int index);
+    }
+
+    private record ValueList(String key, List<?> values) implements Axis {
+
+        @Override
+        public int size() {
+            return this.values.size();
+        }
+
+        @Override
+        public Object value(int index) {
+            return this.values.get(index);
+        }
+    }
+
+    /**
+     * Evenly spaced values from {@code from} up to and including {@code to}, if a whole number of steps away.
+     */
+    private record Range(String key, BigDecimal from, BigDecimal step, int size) implements Axis {
+
+        static Range of(String key, Map<?, ?> range) {
+            Object from = range.get("from");
+            Object to = range.get("to");
+            if (from == null || to == null) {
+                throw new IllegalArgumentException("Range of " + key + " needs both 'from' and 'to': " + range);
+            }
+            // Optional step, 1 by default
+            Object step = range.get("step");
+
+            BigDecimal start = new BigDecimal(from.toString());
+            BigDecimal end = new BigDecimal(to.toString());
+            BigDecimal increment = new BigDecimal(step == null ? "1" : step.toString());
+            if (increment.signum() <= 0 || end.compareTo(start) < 0) {
+                throw new IllegalArgumentException("Range of " + key + " must have a positive step and 'to' not below 'from': " + range);
+            }
+            BigDecimal steps = end.subtract(start).divide(increment, 0, RoundingMode.FLOOR);
+            if (steps.compareTo(BigDecimal.valueOf(Integer.MAX_VALUE - 1)) > 0) {
+                throw new IllegalArgumentException("Range of " + key + " has more than " + Integer.MAX_VALUE + " values: " + range);
+            }
+            return new Range(key, start, increment, steps.intValue() + 1);
+        }
+
+        @Override
+        public Object value(int index) {
+            return this.from.add(this.step.multiply(BigDecimal.valueOf(index))).stripTrailingZeros().toPlainString();
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package be.brw.domain;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Transposed ("bit-sliced") storage of fixed-length genomes, 64 individuals per word.
+ * <p>
+ * Individuals are grouped in blocks of 64 lanes. Within a block, word {@code i} holds gene
+ * {@code i} of all 64 individuals: bit {@code k} is the gene of the block's individual
+ * {@code k}. Comparing one word with a solution gene therefore compares that gene for the
+ * whole block, and the per-lane match counts are accumulated with carry-save adders, as 64
+ * counters running side by side in the bits of a few words.
+ * </p>
+ * <p>
+ * The words of block {@code b} are {@code [b * genomeLength, (b + 1) * genomeLength)} of
+ * {@link #slices()}. A {@link BitSlicedPopulation} breeds directly into them; genomes are only
+ * transposed when the population is loaded from, or handed out as, {@link Individual}s.
+ * </p>
+ */
+final class BitSlicedGenomes {
+
+    /**
+     * Number of individuals stored side by side in one block.
+     */
+    static final int LANES = 64;
+
+    /**
+     * The length shared by every genome, which is also the number of words per block.
+     */
+    private final int genomeLength;
+    /**
+     * The transposed genes: word {@code block * genomeLength + i} holds gene {@code i} of every lane of the block.
+     */
+    private final long[] slices;
+    /**
+     * Bit-sliced counter of completed groups of eight matches; bit {@code k} of word {@code j} is bit {@code j} of lane {@code k}'s count.
+     */
+    private final long[] eights;
+    /**
+     * Scratch rows for the 64x64 bit transposition.
+     */
+    private final long[] rows = new long[LANES];
+
+    /**
+     * Constructs storage for {@code blocks} blocks of 64 genomes of {@code genomeLength} genes, all zero.
+     *
+     * @param genomeLength The length of every genome.
+     * @param blocks The number of blocks.
+     */
+    BitSlicedGenomes(int genomeLength, int blocks) {
+        this.genomeLength = genomeLength;
+        this.slices = new long[blocks * genomeLength];
+        // Every group of eight genes adds at most one to a lane's counter.
+        int groups = (genomeLength + 7) >>> 3;
+        this.eights = new long[Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(groups))];
+    }
+
+    /**
+     * Returns the number of blocks needed for {@code size} genomes.
+     */
+    static int blockCount(int size) {
+        return (size + LANES - 1) / LANES;
+    }
+
+    /**
+     * Returns the length shared by every genome.
+     */
+    int genomeLength() {
+        return this.genomeLength;
+    }
+
+    /**
+     * Returns the transposed genes, for the breeding loops to read and write in place.
+     */
+    long[] slices() {
+        return this.slices;
+    }
+
+    /**
+     * Transposes the genomes of the given individuals into the blocks, lane {@code k} of block
+     * {@code b} receiving individual {@code 64 * b + k}.
+     * <p>
+     * Every 64 genes of a block's 64 genomes form a 64x64 bit matrix, which is transposed in
+     * six rounds of swapping ever smaller sub-blocks.
+     * </p>
+     *
+     * @param individuals The individuals, 64 per block; each must have exactly {@link #genomeLength()} genes.
+     */
+    void load(List<Individual> individuals) {
+        long[] rows = this.rows;
+        for (int block = 0; block * LANES < individuals.size(); block++) {
+            int base = block * this.genomeLength;
+            for (int from = 0; from < this.genomeLength; from += Genome.WORD_SIZE) {
+                for (int lane = 0; lane < LANES; lane++) {
+                    rows[lane] = individuals.get(block * LANES + lane).getPackedGenome().bits(from);
+                }
+                transpose(rows);
+                System.arraycopy(rows, 0, this.slices, base + from, Math.min(Genome.WORD_SIZE, this.genomeLength - from));
+            }
+        }
+    }
+
+    /**
+     * Transposes every block back into one genome per lane.
+     *
+     * @return The genomes, lane {@code k} of block {@code b} at index {@code 64 * b + k}.
+     */
+    Genome[] genomes() {
+        int blocks = this.genomeLength == 0 ? 0 : this.slices.length / this.genomeLength;
+        Genome[] genomes = new Genome[blocks * LANES];
+        for (int i = 0; i < genomes.length; i++) {
+            genomes[i] = new Genome(this.genomeLength);
+        }
+        long[] rows = this.rows;
+        for (int block = 0; block < blocks; block++) {
+            int base = block * this.genomeLength;
+            for (int from = 0; from < this.genomeLength; from += Genome.WORD_SIZE) {
+                int count = Math.min(Genome.WORD_SIZE, this.genomeLength - from);
+                System.arraycopy(this.slices, base + from, rows, 0, count);
+                Arrays.fill(rows, count, LANES, 0L);
+                transpose(rows);
+                for (int lane = 0; lane < LANES; lane++) {
+                    genomes[block * LANES + lane].appendBits(rows[lane], count);
+                }
+            }
+        }
+        return genomes;
+    }
+
+    /**
+     * Gathers the genome of one lane.
+     *
+     * @param index The index of the genome, {@code 64 * block + lane}.
+     * @return A new genome holding a copy of the lane's genes.
+     */
+    Genome genome(int index) {
+        int base = (index / LANES) * this.genomeLength;
+        int lane = index % LANES;
+        Genome genome = new Genome(this.genomeLength);
+        for (int from = 0; from < this.genomeLength; from += Genome.WORD_SIZE) {
+            int count = Math.min(Genome.WORD_SIZE, this.genomeLength - from);
+            long bits = 0L;
+            for (int k = 0; k < count; k++) {
+                bits |= ((this.slices[base + from + k] >>> lane) & 1L) << k;
+            }
+            genome.appendBits(bits, count);
+        }
+        return genome;
+    }
+
+    /**
+     * Sets one gene of one lane.
+     *
+     * @param index The index of the genome, {@code 64 * block + lane}.
+     * @param gene The position of the gene.
+     * @param value The new gene, 0 or 1.
+     */
+    void setGene(int index, int gene, int value) {
+        int word = (index / LANES) * this.genomeLength + gene;
+        int lane = index % LANES;
+        this.slices[word] = (this.slices[word] & ~(1L << lane)) | ((long) value << lane);
+    }
+
+    /**
+     * Transposes a 64x64 bit matrix in place: bit {@code c} of row {@code r} becomes bit {@code r} of row {@code c}.
+     */
+    static void transpose(long[] rows) {
+        long mask = 0x00000000FFFFFFFFL;
+        for (int j = 32; j != 0; j >>>= 1, mask ^= mask << j) {
+            for (int k = 0; k < LANES; k = ((k | j) + 1) & ~j) {
+                long t = ((rows[k] >>> j) ^ rows[k | j]) & mask;
+                rows[k] ^= t << j;
+                rows[k | j] ^= t;
+            }
+        }
+    }
+
+    /**
+     * Counts, for every lane of a block, the genes matching the solution.
+     * <p>
+     * Only the first {@code min(genomeLength, solution.size())} genes are compared. Each gene
+     * yields one word of per-lane matches, which is fed, eight at a time, through a carry-save
+     * adder tree into the {@code ones}, {@code twos} and {@code fours} words; every carry out of
+     * {@code fours} is then added to the {@link #eights} counter.
+     * </p>
+     *
+     * @param block The block to count.
+     * @param solution The solution to compare against.
+     * @param matches Receives the match count of lane {@code k} at index {@code k}.
+     */
+    void countMatches(int block, Genome solution, int[] matches) {
+        int length = Math.min(this.genomeLength, solution.size());
+        long[] target = solution.words();
+        long[] slices = this.slices;
+        int base = block * this.genomeLength;
+        long[] eights = this.eights;
+        Arrays.fill(eights, 0L);
+
+        long ones = 0;
+        long twos = 0;
+        long fours = 0;
+        for (int i = 0; i < length; i += 8) {
+            long e0 = matchWord(slices, base, target, i, length);
+            long e1 = matchWord(slices, base, target, i + 1, length);
+            long e2 = matchWord(slices, base, target, i + 2, length);
+            long e3 = matchWord(slices, base, target, i + 3, length);
+            long e4 = matchWord(slices, base, target, i + 4, length);
+            long e5 = matchWord(slices, base, target, i + 5, length);
+            long e6 = matchWord(slices, base, target, i + 6, length);
+            long e7 = matchWord(slices, base, target, i + 7, length);
+
+            // Each step is a full adder per lane: sum = a ^ b ^ c, carry = majority(a, b, c).
+            long u = ones ^ e0;
+            long twosA = (ones & e0) | (u & e1);
+            ones = u ^ e1;
+            u = ones ^ e2;
+            long twosB = (ones & e2) | (u & e3);
+            ones = u ^ e3;
+            u = twos ^ twosA;
+            long foursA = (twos & twosA) | (u & twosB);
+            twos = u ^ twosB;
+
+            u = ones ^ e4;
+            twosA = (ones & e4) | (u & e5);
+            ones = u ^ e5;
+            u = ones ^ e6;
+            twosB = (ones & e6) | (u & e7);
+            ones = u ^ e7;
+            u = twos ^ twosA;
+            long foursB = (twos & twosA) | (u & twosB);
+            twos = u ^ twosB;
+
+            u = fours ^ foursA;
+            long carry = (fours & foursA) | (u & foursB);
+            fours = u ^ foursB;
+
+            // Ripple the carry into the counter of eights.
+            for (int bit = 0; carry != 0; bit++) {
+                long next = eights[bit] & carry;
+                eights[bit] ^= carry;
+                carry = next;
+            }
+        }
+
+        for (int lane = 0; lane < LANES; lane++) {
+            int count = 0;
+            for (int bit = eights.length - 1; bit >= 0; bit--) {
+                count = (count << 1) | (int) ((eights[bit] >>> lane) & 1L);
+            }
+            matches[lane] = (count << 3)
+                    | (int) ((fours >>> lane) & 1L) << 2
+                    | (int) ((twos >>> lane) & 1L) << 1
+                    | (int) ((ones >>> lane) & 1L);
+        }
+    }
+
+    /**
+     * Returns the lanes whose gene {@code i} matches the solution, or no lanes past the compared length.
+     */
+    private static long matchWord(long[] slices, int base, long[] target, int i, int length) {
+        if (i >= length) {
+            return 0L;
+        }
+        // A solution gene of 1 keeps the slice as is, a gene of 0 inverts it.
+        long solutionGene = (target[i >>> Genome.ADDRESS_BITS] >>> i) & 1L;
+        return slices[base + i] ^ (solutionGene - 1);
+    }
+}
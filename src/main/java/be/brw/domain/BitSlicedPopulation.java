@@ -0,0 +1,524 @@
+package be.brw.domain;
+
+import be.brw.domain.strategy.CrossoverStrategy;
+import be.brw.domain.strategy.LengthPunishingStrategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import static be.brw.domain.BitSlicedGenomes.LANES;
+
+/**
+ * A population of fixed-length genomes evolved in the bit-sliced layout of {@link BitSlicedGenomes},
+ * 64 individuals per word, for the BIT_SLICED population storage of {@link GeneticAlgorithm}.
+ * <p>
+ * The genomes stay transposed from one generation to the next: selection, crossover, FLIP
+ * mutation and scoring all work on the blocks of 64 lanes, and {@link Individual}s are only
+ * created for the fittest individual, checkpoints and listeners. Like the arena, two
+ * generations are kept and swapped.
+ * </p>
+ * <p>
+ * Tournaments are run for a whole block at once. Each contestant is drawn as an index into
+ * the pool, as a scalar tournament would draw it for lane 0; lane {@code k} gets the individual
+ * {@code k} lanes further in the same block, wrapping around, which is one rotation of the
+ * block's words. Every lane therefore sees a tournament of distinct, uniformly drawn
+ * contestants, but the tournaments of neighbouring lanes share their blocks. The lanes each
+ * contestant wins are collected in a mask, and the winners' genes are merged a word at a time.
+ * </p>
+ * <p>
+ * Crossover and mutation draw their cut points and genes per lane, then apply them to every
+ * gene as masks. Survivors fill lanes {@code [0, eliteCount)}, and every block holding one of
+ * them is filled with tournament winners to breed from, before the lanes past
+ * {@code eliteCount} are overwritten with children. Seeded runs therefore differ from the
+ * other engines.
+ * </p>
+ * <p>
+ * Note: This class is not thread-safe; a {@link GeneticAlgorithm} evolves it on the thread that runs the generations.
+ * </p>
+ */
+final class BitSlicedPopulation {
+
+    /**
+     * The target bitstring.
+     */
+    private final Genome solution;
+    /**
+     * The length shared by every genome.
+     */
+    private final int genomeLength;
+    /**
+     * The number of individuals, a multiple of 64.
+     */
+    private final int size;
+    /**
+     * The fitness of every possible match count: with a fixed length, the length penalty is the same for every genome.
+     */
+    private final int[] fitnessByMatches;
+
+    /**
+     * The genomes of the current generation, and the buffer the next one is bred into.
+     */
+    private BitSlicedGenomes current;
+    private BitSlicedGenomes next;
+    /**
+     * The match count of every lane of the current and the next generation.
+     */
+    private int[] matches;
+    private int[] nextMatches;
+    /**
+     * The fitness of every lane of the current and the next generation. In the next generation,
+     * lanes only copied from the current one already hold their fitness before they are scored.
+     */
+    private int[] fitness;
+    private int[] nextFitness;
+    /**
+     * Whether a block of the next generation has to be scored: it received children or mutations.
+     */
+    private final boolean[] stale;
+
+    /**
+     * The index of the fittest individual of the current generation; the first one of equally fit individuals.
+     */
+    private int fittest;
+    /**
+     * Whether an individual of the current generation equals the solution.
+     */
+    private boolean solved;
+    /**
+     * The number of individuals the last evaluation scored, as opposed to copied with their fitness.
+     */
+    private int scored;
+
+    /**
+     * Scratch space: the winners of a block's two parent tournaments (the first one also serves
+     * the survivor tournaments), the merged genes of the two parents, the cut points per gene, the
+     * children of a block that is also bred from, and the match counts of a scored block.
+     */
+    private final Tournament first = new Tournament();
+    private final Tournament second = new Tournament();
+    private final long[] firstGenes;
+    private final long[] secondGenes;
+    private final long[] cuts;
+    private final long[] heldBack;
+    private final int[] blockMatches = new int[LANES];
+
+    /**
+     * Transposes a population of fixed-length individuals and scores it.
+     *
+     * @param solution The packed target bitstring.
+     * @param individuals The individuals, a multiple of 64, all with the same genome length.
+     * @param lengthPunishingStrategy The strategy for penalizing genome length differences.
+     * @param lengthPunishingFactor The multiplier for the length penalty.
+     * @throws IllegalArgumentException if the population size is not a multiple of 64 or the genome lengths differ.
+     */
+    BitSlicedPopulation(Genome solution, List<Individual> individuals, LengthPunishingStrategy lengthPunishingStrategy, double lengthPunishingFactor) {
+        if (individuals.isEmpty() || individuals.size() % LANES != 0) {
+            throw new IllegalArgumentException("A bit-sliced population holds a positive multiple of 64 individuals: " + individuals.size());
+        }
+        int genomeLength = individuals.getFirst().getGenomeLength();
+        for (Individual individual : individuals) {
+            if (individual.getGenomeLength() != genomeLength) {
+                throw new IllegalArgumentException("A bit-sliced population needs genomes of one length: " + genomeLength + " and " + individual.getGenomeLength());
+            }
+        }
+        this.solution = solution;
+        this.genomeLength = genomeLength;
+        this.size = individuals.size();
+        int maxMatches = Math.min(genomeLength, solution.size());
+        this.fitnessByMatches = new int[maxMatches + 1];
+        for (int m = 0; m <= maxMatches; m++) {
+            this.fitnessByMatches[m] = BitstringFitness.score(m, genomeLength, solution.size(), lengthPunishingStrategy, lengthPunishingFactor);
+        }
+
+        int blocks = this.size / LANES;
+        this.current = new BitSlicedGenomes(genomeLength, blocks);
+        this.next = new BitSlicedGenomes(genomeLength, blocks);
+        this.matches = new int[this.size];
+        this.nextMatches = new int[this.size];
+        this.fitness = new int[this.size];
+        this.nextFitness = new int[this.size];
+        this.stale = new boolean[blocks];
+        this.firstGenes = new long[genomeLength];
+        this.secondGenes = new long[genomeLength];
+        this.cuts = new long[genomeLength];
+        this.heldBack = new long[genomeLength];
+
+        // Scored like a bred generation: loaded into the next buffer, then swapped in.
+        this.next.load(individuals);
+        Arrays.fill(this.stale, true);
+        this.swap();
+    }
+
+    /**
+     * Returns the number of individuals.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Fills lanes {@code [0, eliteCount)} of the next generation with tournament winners from
+     * the current one, and the rest of their last block too, as parents for the children.
+     *
+     * @param eliteCount The number of survivors.
+     * @param tournamentSize The number of contestants per tournament.
+     * @param random The random number generator to draw contestants with.
+     */
+    void selectSurvivors(int eliteCount, int tournamentSize, RandomGenerator random) {
+        long[] source = this.current.slices();
+        long[] target = this.next.slices();
+        Tournament tournament = this.first;
+        for (int block = 0, blocks = parentBlocks(eliteCount); block < blocks; block++) {
+            tournament.draw(this.fitness, this.size, tournamentSize, random);
+            tournament.gather(source, this.genomeLength, target, block * this.genomeLength);
+            for (int lane = 0; lane < LANES; lane++) {
+                int winner = tournament.winners[lane];
+                this.nextMatches[block * LANES + lane] = this.matches[winner];
+                this.nextFitness[block * LANES + lane] = this.fitness[winner];
+            }
+            this.stale[block] = false;
+        }
+    }
+
+    /**
+     * Breeds children into lanes {@code [eliteCount, size)} of the next generation, from parents
+     * won in tournaments among the blocks filled by {@link #selectSurvivors(int, int, RandomGenerator)}.
+     *
+     * @param eliteCount The number of survivors.
+     * @param tournamentSize The number of contestants per tournament.
+     * @param crossoverStrategy How the genes of the two parents are combined; UNIFORM draws a random mask per gene.
+     * @param random The random number generator to draw parents, cut points and masks with.
+     */
+    void breedChildren(int eliteCount, int tournamentSize, CrossoverStrategy crossoverStrategy, RandomGenerator random) {
+        int length = this.genomeLength;
+        long[] slices = this.next.slices();
+        int pool = parentBlocks(eliteCount) * LANES;
+        // A block holding both parents and children is bred from; its children are only written once all are bred.
+        int sharedBlock = eliteCount < pool ? eliteCount / LANES : -1;
+
+        for (int block = eliteCount / LANES; block < this.size / LANES; block++) {
+            this.first.draw(this.nextFitness, pool, tournamentSize, random);
+            this.second.draw(this.nextFitness, pool, tournamentSize, random);
+            this.first.gather(slices, length, this.firstGenes, 0);
+            this.second.gather(slices, length, this.secondGenes, 0);
+            long[] target = block == sharedBlock ? this.heldBack : slices;
+            this.cross(crossoverStrategy, target, block == sharedBlock ? 0 : block * length, random);
+            this.stale[block] = true;
+        }
+        if (sharedBlock >= 0) {
+            long children = -1L << (eliteCount % LANES);
+            int base = sharedBlock * length;
+            for (int i = 0; i < length; i++) {
+                slices[base + i] = (slices[base + i] & ~children) | (this.heldBack[i] & children);
+            }
+        }
+    }
+
+    /**
+     * Combines {@link #firstGenes} and {@link #secondGenes} into {@code length} words of {@code target}.
+     */
+    private void cross(CrossoverStrategy crossoverStrategy, long[] target, int offset, RandomGenerator random) {
+        int length = this.genomeLength;
+        long[] a = this.firstGenes;
+        long[] b = this.secondGenes;
+        if (length <= 1) {
+            // Same fallback as GeneticAlgorithm.crossover(): every lane keeps the fitter parent.
+            long firstFitter = 0L;
+            for (int lane = 0; lane < LANES; lane++) {
+                if (this.first.fitness[lane] > this.second.fitness[lane]) {
+                    firstFitter |= 1L << lane;
+                }
+            }
+            for (int i = 0; i < length; i++) {
+                target[offset + i] = (a[i] & firstFitter) | (b[i] & ~firstFitter);
+            }
+            return;
+        }
+
+        long[] cuts = this.cuts;
+        switch (crossoverStrategy) {
+            case ONE_POINT -> {
+                // Genes before a lane's cut come from the first parent, the others from the second.
+                for (int lane = 0; lane < LANES; lane++) {
+                    cuts[random.nextInt(length - 1)] |= 1L << lane;
+                }
+                long fromSecond = 0L;
+                for (int i = 0; i < length; i++) {
+                    fromSecond |= cuts[i];
+                    cuts[i] = 0L;
+                    target[offset + i] = (a[i] & ~fromSecond) | (b[i] & fromSecond);
+                }
+            }
+            case TWO_POINT -> {
+                // Genes [cut1, cut2) come from the second parent: each cut toggles the lane.
+                for (int lane = 0; lane < LANES; lane++) {
+                    int cut1 = random.nextInt(length - 1) + 1;
+                    int cut2 = random.nextInt(length - cut1) + cut1;
+                    cuts[cut1] ^= 1L << lane;
+                    cuts[cut2] ^= 1L << lane;
+                }
+                long fromSecond = 0L;
+                for (int i = 0; i < length; i++) {
+                    fromSecond ^= cuts[i];
+                    cuts[i] = 0L;
+                    target[offset + i] = (a[i] & ~fromSecond) | (b[i] & fromSecond);
+                }
+            }
+            case UNIFORM -> {
+                for (int i = 0; i < length; i++) {
+                    long mask = random.nextLong();
+                    target[offset + i] = (a[i] & mask) | (b[i] & ~mask);
+                }
+            }
+            case ARITHMETIC -> {
+                for (int i = 0; i < length; i++) {
+                    target[offset + i] = a[i] ^ b[i];
+                }
+            }
+            default -> throw new UnsupportedOperationException(
+                    "Unknown crossover strategy: " + crossoverStrategy
+            );
+        }
+    }
+
+    /**
+     * Applies FLIP mutations to lanes {@code [from, to)} of the next generation, setting a random
+     * gene to a random value, with the geometric gaps of the batch mutation engine.
+     *
+     * @param from The first lane to mutate.
+     * @param to The end of the lanes to mutate, exclusive.
+     * @param rate The probability that a lane mutates, or that a gene does if {@code perGene}.
+     * @param perGene Whether every gene rather than every lane mutates with probability {@code rate}.
+     * @param random The random number generator to draw the gaps, genes and values with.
+     * @return The number of mutations.
+     */
+    int mutate(int from, int to, double rate, boolean perGene, RandomGenerator random) {
+        if (rate <= 0.0 || from >= to || this.genomeLength == 0) {
+            return 0;
+        }
+        // log(1 - p), the scale of the geometric gaps; every position mutates when p >= 1.
+        double logSkip = rate >= 1.0 ? 0.0 : Math.log1p(-rate);
+        long positions = perGene ? (long) (to - from) * this.genomeLength : to - from;
+        int mutations = 0;
+        for (long position = nextGap(logSkip, random); position < positions; position += 1 + nextGap(logSkip, random)) {
+            int lane;
+            int gene;
+            if (perGene) {
+                lane = from + (int) (position / this.genomeLength);
+                gene = (int) (position % this.genomeLength);
+            } else {
+                lane = from + (int) position;
+                gene = random.nextInt(this.genomeLength);
+            }
+            this.next.setGene(lane, gene, random.nextInt(2));
+            this.stale[lane / LANES] = true;
+            mutations++;
+        }
+        return mutations;
+    }
+
+    /**
+     * Draws the number of positions skipped before the next mutation, from a geometric distribution.
+     */
+    private static long nextGap(double logSkip, RandomGenerator random) {
+        if (logSkip == 0.0) {
+            return 0L;
+        }
+        // 1 - nextDouble() is in (0, 1], so the log is finite; the cap keeps position sums from overflowing.
+        return (long) Math.min(Math.log(1.0 - random.nextDouble()) / logSkip, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Makes the bred generation the current one, scoring the blocks that changed.
+     */
+    void swap() {
+        BitSlicedGenomes genomes = this.next;
+        this.next = this.current;
+        this.current = genomes;
+        int[] swapped = this.matches;
+        this.matches = this.nextMatches;
+        this.nextMatches = swapped;
+        swapped = this.fitness;
+        this.fitness = this.nextFitness;
+        this.nextFitness = swapped;
+
+        int solutionLength = this.solution.size();
+        int[] blockMatches = this.blockMatches;
+        this.scored = 0;
+        this.fittest = 0;
+        this.solved = false;
+        for (int block = 0; block < this.stale.length; block++) {
+            int base = block * LANES;
+            if (this.stale[block]) {
+                this.current.countMatches(block, this.solution, blockMatches);
+                for (int lane = 0; lane < LANES; lane++) {
+                    this.matches[base + lane] = blockMatches[lane];
+                    this.fitness[base + lane] = this.fitnessByMatches[blockMatches[lane]];
+                }
+                this.stale[block] = false;
+                this.scored += LANES;
+            }
+            for (int i = base; i < base + LANES; i++) {
+                if (this.fitness[i] > this.fitness[this.fittest]) {
+                    this.fittest = i;
+                }
+                this.solved |= this.genomeLength == solutionLength && this.matches[i] == solutionLength;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of blocks of tournament winners that children are bred from, at least one.
+     */
+    private static int parentBlocks(int eliteCount) {
+        return Math.max(1, BitSlicedGenomes.blockCount(eliteCount));
+    }
+
+    /**
+     * Returns the fitness of the fittest individual of the current generation.
+     */
+    int getBestFitness() {
+        return this.fitness[this.fittest];
+    }
+
+    /**
+     * Returns a copy of the fittest individual of the current generation; the first one of equally fit individuals.
+     */
+    Individual getFittest() {
+        return this.individual(this.current.genome(this.fittest), this.fittest);
+    }
+
+    /**
+     * Returns whether an individual of the current generation equals the solution.
+     */
+    boolean isSolved() {
+        return this.solved;
+    }
+
+    /**
+     * Returns the number of individuals the last evaluation scored.
+     */
+    int getScoredCount() {
+        return this.scored;
+    }
+
+    /**
+     * Returns copies of every individual of the current generation, in lane order, with their fitness.
+     */
+    List<Individual> toIndividuals() {
+        Genome[] genomes = this.current.genomes();
+        List<Individual> individuals = new ArrayList<>(genomes.length);
+        for (int i = 0; i < genomes.length; i++) {
+            individuals.add(this.individual(genomes[i], i));
+        }
+        return individuals;
+    }
+
+    /**
+     * Wraps a copied genome in an individual evaluated like lane {@code index}.
+     */
+    private Individual individual(Genome genome, int index) {
+        Individual individual = new Individual(genome);
+        individual.setMatchCount(this.solution, this.matches[index]);
+        individual.setEvaluatedFitness(this.fitness[index]);
+        return individual;
+    }
+
+    /**
+     * One tournament per lane of a block: the contestants drawn and the lanes each one won.
+     */
+    private static final class Tournament {
+        /**
+         * The pool index of every contestant, as drawn for lane 0.
+         */
+        private int[] contestants = new int[0];
+        /**
+         * The number of contestants of the last draw.
+         */
+        private int count;
+        /**
+         * The lanes won by each contestant; the masks of one draw are disjoint and cover every lane.
+         */
+        private long[] won = new long[0];
+        /**
+         * The pool index and the fitness of the winner of every lane.
+         */
+        private final int[] winners = new int[LANES];
+        private final int[] fitness = new int[LANES];
+
+        /**
+         * Draws {@code min(tournamentSize, pool)} distinct contestants with Floyd's algorithm,
+         * and finds the winner of every lane; ties go to the contestant drawn first.
+         *
+         * @param fitness The fitness of every individual of the pool.
+         * @param pool The number of individuals to draw from, a multiple of 64.
+         * @param tournamentSize The number of contestants.
+         * @param random The random number generator to draw with.
+         */
+        void draw(int[] fitness, int pool, int tournamentSize, RandomGenerator random) {
+            int count = Math.max(1, Math.min(tournamentSize, pool));
+            if (this.contestants.length < count) {
+                this.contestants = new int[count];
+                this.won = new long[count];
+            }
+            int[] contestants = this.contestants;
+            for (int sampled = 0, j = pool - count; j < pool; sampled++, j++) {
+                int candidate = random.nextInt(j + 1);
+                for (int c = 0; c < sampled; c++) {
+                    if (contestants[c] == candidate) {
+                        // Already in the tournament: j itself cannot have been drawn yet.
+                        candidate = j;
+                        break;
+                    }
+                }
+                contestants[sampled] = candidate;
+                this.won[sampled] = 0L;
+            }
+            this.count = count;
+
+            for (int lane = 0; lane < LANES; lane++) {
+                int winner = -1;
+                int best = 0;
+                for (int c = 0; c < count; c++) {
+                    // The individual `lane` lanes after the contestant, within its block.
+                    int index = (contestants[c] & -LANES) | ((contestants[c] + lane) & (LANES - 1));
+                    if (winner < 0 || fitness[index] > best) {
+                        winner = c;
+                        best = fitness[index];
+                        this.winners[lane] = index;
+                    }
+                }
+                this.won[winner] |= 1L << lane;
+                this.fitness[lane] = best;
+            }
+        }
+
+        /**
+         * Writes the genes of every lane's winner into {@code length} words of {@code target}: each
+         * contestant's block is rotated so that its lanes line up, and masked to the lanes it won.
+         *
+         * @param slices The transposed genes of the pool.
+         * @param length The genome length, which is the number of words per block.
+         * @param target The words to write to.
+         * @param offset The first word to write.
+         */
+        void gather(long[] slices, int length, long[] target, int offset) {
+            for (int c = 0; c < this.count; c++) {
+                long won = this.won[c];
+                int base = (this.contestants[c] / LANES) * length;
+                int rotation = this.contestants[c] % LANES;
+                if (c == 0) {
+                    for (int i = 0; i < length; i++) {
+                        target[offset + i] = Long.rotateRight(slices[base + i], rotation) & won;
+                    }
+                } else if (won != 0L) {
+                    for (int i = 0; i < length; i++) {
+                        target[offset + i] |= Long.rotateRight(slices[base + i], rotation) & won;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package be.brw.domain;
+
+import be.brw.domain.strategy.LengthPunishingStrategy;
+
+/**
+ * The default fitness function: the number of genes matching the solution at the same position,
+ * minus a penalty for the difference in length with the solution, floored at 0.
+ */
+public final class BitstringFitness implements FitnessFunction {
+
+    /**
+     * The target bitstring.
+     */
+    private final Genome solution;
+    /**
+     * The strategy used to penalize genomes whose length differs from the solution's length.
+     */
+    private final LengthPunishingStrategy lengthPunishingStrategy;
+    /**
+     * The factor by which the length-difference penalty is multiplied.
+     */
+    private final double lengthPunishingFactor;
+
+    /**
+     * Constructs the fitness function for a solution.
+     *
+     * @param solution The packed target bitstring.
+     * @param lengthPunishingStrategy The strategy for penalizing genome length differences.
+     * @param lengthPunishingFactor The multiplier for the length penalty.
+     */
+    public BitstringFitness(Genome solution, LengthPunishingStrategy lengthPunishingStrategy, double lengthPunishingFactor) {
+        this.solution = solution;
+        this.lengthPunishingStrategy = lengthPunishingStrategy;
+        this.lengthPunishingFactor = lengthPunishingFactor;
+    }
+
+    public Genome getSolution() {
+        return solution;
+    }
+
+    public LengthPunishingStrategy getLengthPunishingStrategy() {
+        return lengthPunishingStrategy;
+    }
+
+    public double getLengthPunishingFactor() {
+        return lengthPunishingFactor;
+    }
+
+    @Override
+    public int evaluate(long[] genome, int length) {
+        int comparisonLength = Math.min(length, this.solution.size());
+        int matches = MatchKernel.BEST.countMatches(genome, this.solution.words(), comparisonLength);
+        return score(matches, length, this.solution.size(), this.lengthPunishingStrategy, this.lengthPunishingFactor);
+    }
+
+    /**
+     * Scores a genome from its match count: matching genes minus the weighted length penalty, floored at 0.
+     *
+     * @param matches The number of genes matching the solution.
+     * @param genomeLength The length of the genome.
+     * @param solutionLength The length of the solution.
+     * @param lengthPunishingStrategy The strategy for penalizing genome length differences.
+     * @param lengthPunishingFactor The multiplier for the length penalty.
+     * @return The fitness.
+     */
+    static int score(int matches, int genomeLength, int solutionLength, LengthPunishingStrategy lengthPunishingStrategy, double lengthPunishingFactor) {
+        int fitness = matches;
+
+        // Calculate the penalty for length difference.
+        int penalty = 0;
+        switch (lengthPunishingStrategy) {
+            case LINEAR -> penalty = Math.abs(genomeLength - solutionLength);
+            case EXPONENTIAL -> penalty = (int) Math.pow(genomeLength - solutionLength, 2);
+        }
+        return (int) Math.max(0, fitness - lengthPunishingFactor * penalty);
+    }
+}
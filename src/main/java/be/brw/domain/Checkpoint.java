@@ -0,0 +1,277 @@
+package be.brw.domain;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The state of a run between two generations, as stored in a checkpoint file.
+ * <p>
+ * The file starts with a header holding a magic number, the format version, the configuration
+ * hash (see {@link be.brw.config.GAConfig#getEvolutionHash()}), the generation count and the
+ * serialized state of the random number generator. The best individual so far follows, then
+ * every individual of the population in order. Each individual is a 16-byte entry header and the
+ * packed words of its genome, bulk-copied between the genome and a direct buffer that is read
+ * from or written to the file channel. An individual that is the same instance as an earlier one,
+ * as when a survivor is selected twice, is stored as a reference to it, so the resumed population
+ * shares instances the same way.
+ * </p>
+ * <p>
+ * A checkpoint is written to a temporary file that is then renamed over the previous one, so a
+ * run that dies while writing leaves the previous checkpoint intact. The file is not forced to
+ * the disk: it survives the JVM dying, not the machine. Checkpoint files are never memory-mapped:
+ * a mapping is only released when it is garbage collected, and on Windows a mapped file cannot
+ * be renamed or replaced until then.
+ * </p>
+ *
+ * @param configHash The hash of the configuration the run was started with.
+ * @param generationCount The number of generations evolved.
+ * @param random The random number generator of the run, in the state it had after the last generation.
+ * @param bestSoFar The fittest individual of all generations so far.
+ * @param individuals The current population, in order.
+ */
+record Checkpoint(long configHash, int generationCount, Random random, Individual bestSoFar, List<Individual> individuals) {
+
+    /**
+     * "BRWC" in ASCII.
+     */
+    private static final int MAGIC = 0x42525743;
+    private static final int VERSION = 1;
+    /**
+     * Magic and version, configuration hash, generation and individual counts, random state length.
+     */
+    private static final int HEADER_BYTES = 32;
+    /**
+     * Reference to an earlier individual (or -1), genome length, fitness and padding.
+     */
+    private static final int ENTRY_BYTES = 16;
+    /**
+     * The size of the buffer between the file and the genomes; grown for a genome that does not fit.
+     */
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    /**
+     * Writes this checkpoint to a file, replacing any previous one.
+     *
+     * @param file The checkpoint file.
+     * @throws IOException if the file cannot be written.
+     */
+    void write(Path file) throws IOException {
+        byte[] randomState = serialize(this.random);
+        int count = this.individuals.size();
+
+        // Find repeated instances, to store them as references.
+        Map<Individual, Integer> firstIndex = new IdentityHashMap<>(count);
+        int[] references = new int[count];
+        for (int i = 0; i < count; i++) {
+            Integer first = firstIndex.putIfAbsent(this.individuals.get(i), i);
+            references[i] = first != null ? first : -1;
+        }
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Window out = new Window(channel, true);
+            ByteBuffer buffer = out.reserve(HEADER_BYTES + padded(randomState.length));
+            buffer.putInt(MAGIC).putInt(VERSION)
+                    .putLong(this.configHash)
+                    .putInt(this.generationCount).putInt(count)
+                    .putInt(randomState.length).putInt(0)
+                    .put(randomState);
+            buffer.position(buffer.position() + padded(randomState.length) - randomState.length);
+
+            writeEntry(out, this.bestSoFar, -1);
+            for (int i = 0; i < count; i++) {
+                writeEntry(out, this.individuals.get(i), references[i]);
+            }
+            out.flush();
+        }
+        // The channel is closed and nothing maps the file, so it can be renamed on every platform.
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a checkpoint file.
+     *
+     * @param file The checkpoint file.
+     * @return The checkpoint, with newly allocated individuals.
+     * @throws IOException if the file cannot be read or is not a checkpoint.
+     */
+    static Checkpoint read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Window in = new Window(channel, false);
+            ByteBuffer buffer = in.reserve(HEADER_BYTES);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException(file + " is not a checkpoint file");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported checkpoint version " + version + " in " + file);
+            }
+            long configHash = buffer.getLong();
+            int generationCount = buffer.getInt();
+            int count = buffer.getInt();
+            int randomStateLength = buffer.getInt();
+            buffer.getInt();
+
+            buffer = in.reserve(padded(randomStateLength));
+            byte[] randomState = new byte[randomStateLength];
+            buffer.get(randomState);
+            buffer.position(buffer.position() + padded(randomStateLength) - randomStateLength);
+            Random random = deserialize(randomState);
+
+            Individual bestSoFar = readEntry(in, null);
+            List<Individual> individuals = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                individuals.add(readEntry(in, individuals));
+            }
+            return new Checkpoint(configHash, generationCount, random, bestSoFar, individuals);
+        }
+    }
+
+    private static void writeEntry(Window out, Individual individual, int reference) throws IOException {
+        Genome genome = individual.getPackedGenome();
+        ByteBuffer buffer = out.reserve(reference >= 0 ? ENTRY_BYTES : entryBytes(individual));
+        buffer.putInt(reference).putInt(genome.size()).putInt(individual.getFitness()).putInt(0);
+        if (reference < 0) {
+            genome.writeWords(buffer);
+        }
+    }
+
+    /**
+     * Reads an individual, or looks up the earlier one it refers to.
+     */
+    private static Individual readEntry(Window in, List<Individual> earlier) throws IOException {
+        ByteBuffer buffer = in.reserve(ENTRY_BYTES);
+        int reference = buffer.getInt();
+        int length = buffer.getInt();
+        int fitness = buffer.getInt();
+        buffer.getInt();
+        if (reference >= 0) {
+            if (earlier == null || reference >= earlier.size()) {
+                throw new IOException("Corrupt checkpoint: reference to individual " + reference);
+            }
+            return earlier.get(reference);
+        }
+        if (length < 0) {
+            throw new IOException("Corrupt checkpoint: genome length " + length);
+        }
+        Genome genome = new Genome(length);
+        genome.readWords(in.reserve(Genome.wordCount(length) * Long.BYTES), length);
+        return new Individual(genome, fitness);
+    }
+
+    private static int entryBytes(Individual individual) {
+        return ENTRY_BYTES + Genome.wordCount(individual.getGenomeLength()) * Long.BYTES;
+    }
+
+    private static int padded(int bytes) {
+        return (bytes + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+    private static byte[] serialize(Random random) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(random);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Random deserialize(byte[] state) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(state))) {
+            // Nothing but the generator itself is ever read from a checkpoint.
+            in.setObjectInputFilter(ObjectInputFilter.Config.createFilter("java.util.Random;!*"));
+            return (Random) in.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new InvalidClassException("Corrupt checkpoint: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Moves bytes between a file channel and a reusable direct buffer, so that genomes are still
+     * bulk-copied while the file is read or written sequentially.
+     */
+    private static final class Window {
+        private final FileChannel channel;
+        private final boolean writing;
+        /**
+         * The file offset of the start of {@link #buffer}.
+         */
+        private long offset;
+        /**
+         * When writing, holds the bytes not flushed yet; when reading, the bytes not consumed yet
+         * between its position and limit.
+         */
+        private ByteBuffer buffer;
+
+        Window(FileChannel channel, boolean writing) {
+            this.channel = channel;
+            this.writing = writing;
+            this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (!writing) {
+                this.buffer.limit(0);
+            }
+        }
+
+        /**
+         * Returns the buffer, positioned at the next unread or unwritten byte, with at least {@code bytes} remaining.
+         */
+        ByteBuffer reserve(int bytes) throws IOException {
+            if (this.buffer.remaining() >= bytes) {
+                return this.buffer;
+            }
+            if (this.writing) {
+                this.flush();
+                if (this.buffer.capacity() < bytes) {
+                    this.buffer = ByteBuffer.allocateDirect(bytes).order(ByteOrder.LITTLE_ENDIAN);
+                }
+                return this.buffer;
+            }
+
+            // Keep the unread bytes, then read until the requested ones are there.
+            this.offset += this.buffer.position();
+            if (this.buffer.capacity() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocateDirect(bytes).order(ByteOrder.LITTLE_ENDIAN);
+                larger.put(this.buffer);
+                this.buffer = larger;
+            } else {
+                this.buffer.compact();
+            }
+            while (this.buffer.position() < bytes) {
+                if (this.channel.read(this.buffer) < 0) {
+                    throw new EOFException("Checkpoint file is truncated at byte " + (this.offset + this.buffer.position()));
+                }
+            }
+            this.buffer.flip();
+            return this.buffer;
+        }
+
+        /**
+         * Writes the buffered bytes to the channel.
+         */
+        void flush() throws IOException {
+            this.buffer.flip();
+            while (this.buffer.hasRemaining()) {
+                this.channel.write(this.buffer);
+            }
+            this.offset += this.buffer.limit();
+            this.buffer.clear();
+        }
+    }
+}
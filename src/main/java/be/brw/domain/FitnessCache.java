@@ -0,0 +1,325 @@
+package be.brw.domain;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link FitnessFunction} that remembers the fitness of recently scored genomes.
+ * <p>
+ * Genomes are keyed by a hash of their packed words and compared in full on lookup, so two
+ * different genomes never share an entry. At most {@code capacity} genomes are kept; when the
+ * cache is full, an entry is evicted with the CLOCK algorithm: entries sit on a ring, a hit sets
+ * the entry's reference bit, and the clock hand clears reference bits until it finds an entry
+ * that was not used since the hand last passed it. A batch only hands the genomes that missed to
+ * the wrapped function, each distinct genome once.
+ * </p>
+ * <p>
+ * Lookups go through a reused probe key, batches through reused scratch arrays, and an evicted
+ * entry's key is refilled for its successor, so a warm cache allocates little more than the
+ * map entries of new genomes.
+ * </p>
+ * <p>
+ * Note: This class is not thread-safe. A {@link GeneticAlgorithm} owns its own cache and only
+ * calls it from the thread that runs the generations.
+ * </p>
+ */
+public final class FitnessCache implements FitnessFunction {
+
+    /**
+     * The function scoring genomes that are not cached.
+     */
+    private final FitnessFunction delegate;
+    /**
+     * The ring slot holding each cached genome.
+     */
+    private final Map<Key, Integer> slots;
+    /**
+     * The cached genomes, by ring slot; {@code null} for slots not used yet.
+     */
+    private final Key[] keys;
+    /**
+     * The cached fitness, by ring slot.
+     */
+    private final int[] fitness;
+    /**
+     * Whether each slot was hit since the clock hand last passed it.
+     */
+    private final boolean[] referenced;
+    /**
+     * The next slot the clock hand looks at.
+     */
+    private int hand;
+    /**
+     * The number of slots in use.
+     */
+    private int size;
+
+    /**
+     * The key looked up by {@link #evaluate(long[], int)}, pointed at the caller's genome.
+     */
+    private final Key probe = new Key();
+    /**
+     * The genomes of the current batch that were not cached, each scored once: their keys point at
+     * the caller's genomes, and map to their index in the missed arrays. Cleared after every batch.
+     */
+    private final Map<Key, Integer> batchMisses = new HashMap<>();
+    /**
+     * Scratch space of the batch evaluation, grown to the largest batch seen.
+     */
+    private Key[] batchKeys = new Key[0];
+    private long[][] missedGenomes;
+    private int[] missedLengths;
+    private int[] missIndex;
+    private int[] missedFitness;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructs a cache in front of a fitness function.
+     *
+     * @param delegate The function scoring genomes that are not cached.
+     * @param capacity The maximum number of genomes to remember.
+     */
+    public FitnessCache(FitnessFunction delegate, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Fitness cache capacity must be at least 1: " + capacity);
+        }
+        this.delegate = delegate;
+        this.slots = new HashMap<>(capacity * 4 / 3 + 1);
+        this.keys = new Key[capacity];
+        this.fitness = new int[capacity];
+        this.referenced = new boolean[capacity];
+    }
+
+    @Override
+    public int evaluate(long[] genome, int length) {
+        Key probe = this.probe.set(genome, length);
+        Integer slot = this.slots.get(probe);
+        if (slot != null) {
+            this.hits++;
+            this.referenced[slot] = true;
+            probe.release();
+            return this.fitness[slot];
+        }
+        this.misses++;
+        int value = this.delegate.evaluate(genome, length);
+        this.insert(probe, value);
+        probe.release();
+        return value;
+    }
+
+    @Override
+    public void evaluate(long[][] genomes, int[] lengths, int count, int[] fitness) {
+        this.ensureBatchCapacity(count);
+        try {
+            this.evaluateBatch(genomes, lengths, count, fitness);
+        } finally {
+            // Do not keep the caller's genomes reachable from the scratch space, even if the function failed.
+            this.batchMisses.clear();
+            for (int i = 0; i < count; i++) {
+                this.batchKeys[i].release();
+                this.missedGenomes[i] = null;
+            }
+            this.batchKeys[0].release();
+        }
+    }
+
+    private void evaluateBatch(long[][] genomes, int[] lengths, int count, int[] fitness) {
+        long[][] missedGenomes = this.missedGenomes;
+        int[] missedLengths = this.missedLengths;
+        Key[] missedKeys = this.batchKeys;
+        // Index into the missed arrays for every genome, or -1 for hits.
+        int[] missIndex = this.missIndex;
+        Map<Key, Integer> batchMisses = this.batchMisses;
+        int missCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            // The next free batch key doubles as the probe; it is only kept if the genome missed.
+            Key probe = missedKeys[missCount].set(genomes[i], lengths[i]);
+            Integer slot = this.slots.get(probe);
+            if (slot != null) {
+                this.hits++;
+                this.referenced[slot] = true;
+                fitness[i] = this.fitness[slot];
+                missIndex[i] = -1;
+                continue;
+            }
+            Integer earlier = batchMisses.putIfAbsent(probe, missCount);
+            if (earlier != null) {
+                // Same genome as an earlier miss of this batch: scored once.
+                this.hits++;
+                missIndex[i] = earlier;
+                continue;
+            }
+            this.misses++;
+            missedGenomes[missCount] = genomes[i];
+            missedLengths[missCount] = lengths[i];
+            missIndex[i] = missCount++;
+        }
+        if (missCount == 0) {
+            return;
+        }
+
+        int[] missedFitness = this.missedFitness;
+        this.delegate.evaluate(missedGenomes, missedLengths, missCount, missedFitness);
+        for (int m = 0; m < missCount; m++) {
+            this.insert(missedKeys[m], missedFitness[m]);
+        }
+        for (int i = 0; i < count; i++) {
+            if (missIndex[i] >= 0) {
+                fitness[i] = missedFitness[missIndex[i]];
+            }
+        }
+    }
+
+    /**
+     * Grows the scratch space of the batch evaluation to hold {@code count} genomes.
+     */
+    private void ensureBatchCapacity(int count) {
+        // A batch key is used as the probe even when nothing missed, so at least one is needed.
+        int capacity = Math.max(count, 1);
+        if (this.batchKeys.length >= capacity) {
+            return;
+        }
+        int filled = this.batchKeys.length;
+        this.batchKeys = Arrays.copyOf(this.batchKeys, capacity);
+        for (int i = filled; i < capacity; i++) {
+            this.batchKeys[i] = new Key();
+        }
+        this.missedGenomes = new long[capacity][];
+        this.missedLengths = new int[capacity];
+        this.missIndex = new int[capacity];
+        this.missedFitness = new int[capacity];
+    }
+
+    /**
+     * Stores a copy of a genome with its fitness, evicting an entry if the cache is full.
+     */
+    private void insert(Key probe, int value) {
+        int slot;
+        Key key;
+        if (this.size < this.keys.length) {
+            slot = this.size++;
+            key = new Key();
+        } else {
+            while (this.referenced[this.hand]) {
+                this.referenced[this.hand] = false;
+                this.hand = (this.hand + 1) % this.keys.length;
+            }
+            slot = this.hand;
+            this.hand = (this.hand + 1) % this.keys.length;
+            key = this.keys[slot];
+            this.slots.remove(key);
+            this.evictions++;
+        }
+        key.copyFrom(probe);
+        this.keys[slot] = key;
+        this.fitness[slot] = value;
+        this.referenced[slot] = false;
+        this.slots.put(key, slot);
+    }
+
+    /**
+     * Returns the number of genomes whose fitness was found in the cache.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of genomes that had to be scored by the wrapped function.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of entries evicted to make room for new ones.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the number of cached genomes.
+     */
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "FitnessCache{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                ", size=" + size +
+                ", capacity=" + keys.length +
+                '}';
+    }
+
+    /**
+     * A genome as a cache key: its used words, its length and a hash of both.
+     * <p>
+     * Keys are mutable so that they can be reused, but a key must not change while it is in a map.
+     * </p>
+     */
+    private static final class Key {
+        private long[] words;
+        private int length;
+        private int hash;
+
+        /**
+         * Points this key at the caller's array, for a lookup.
+         *
+         * @return This key.
+         */
+        Key set(long[] words, int length) {
+            long hash = length;
+            for (int i = 0, count = Genome.wordCount(length); i < count; i++) {
+                hash = (hash ^ words[i]) * 0x9E3779B97F4A7C15L;
+            }
+            this.words = words;
+            this.length = length;
+            this.hash = (int) (hash ^ (hash >>> 32));
+            return this;
+        }
+
+        /**
+         * Makes this key hold its own copy of another key's used words, reusing its array when large enough.
+         */
+        void copyFrom(Key other) {
+            int count = Genome.wordCount(other.length);
+            if (this.words == null || this.words.length < count) {
+                this.words = new long[count];
+            }
+            System.arraycopy(other.words, 0, this.words, 0, count);
+            this.length = other.length;
+            this.hash = other.hash;
+        }
+
+        /**
+         * Drops the reference to the caller's array after a lookup.
+         */
+        void release() {
+            this.words = null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            if (this.length != other.length || this.hash != other.hash) return false;
+            int count = Genome.wordCount(this.length);
+            return Arrays.equals(this.words, 0, count, other.words, 0, count);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package be.brw.domain;
+
+import be.brw.config.GAConfig;
+
+/**
+ * Scores genomes for a {@link Population}; a higher fitness is better.
+ * <p>
+ * Genomes are passed as packed words, as stored by {@link Genome}: gene {@code i} is bit
+ * {@code i % 64} of word {@code i / 64}, bits beyond the genome length are zero, and the array
+ * may be longer than the genome needs. Fitness values must not be negative, since ROULETTE
+ * selection uses them as weights.
+ * </p>
+ * <p>
+ * A population hands all the genomes that changed since the last evaluation to
+ * {@link #evaluate(long[][], int[], int, int[])} in one call, so implementations can amortize
+ * setup, vectorize, or distribute the work. The default implementation, {@link BitstringFitness},
+ * is evaluated incrementally by {@link Population} instead and never sees a batch.
+ * </p>
+ * <p>
+ * The function is chosen with the {@code fitnessFunction} configuration key: {@value #BITSTRING}
+ * for the default, or the fully qualified name of a class implementing this interface, which
+ * must have a public constructor taking a {@link GAConfig} or a public no-argument one.
+ * </p>
+ */
+public interface FitnessFunction {
+
+    /**
+     * Configuration name of the default bitstring matching function.
+     */
+    String BITSTRING = "BITSTRING";
+
+    /**
+     * Scores a single genome.
+     *
+     * @param genome The packed genes.
+     * @param length The number of genes.
+     * @return The fitness, at least 0.
+     */
+    int evaluate(long[] genome, int length);
+
+    /**
+     * Scores a batch of genomes. The default implementation scores them one at a time.
+     *
+     * @param genomes The packed genes of each genome; only the first {@code count} are used.
+     * @param lengths The number of genes of each genome.
+     * @param count The number of genomes to score.
+     * @param fitness Receives the fitness of genome {@code i} at index {@code i}.
+     */
+    default void evaluate(long[][] genomes, int[] lengths, int count, int[] fitness) {
+        for (int i = 0; i < count; i++) {
+            fitness[i] = this.evaluate(genomes[i], lengths[i]);
+        }
+    }
+
+    /**
+     * Creates the fitness function named by the configuration.
+     *
+     * @param config The configuration.
+     * @return A new {@link BitstringFitness} for {@value #BITSTRING}, or an instance of the configured class.
+     * @throws IllegalArgumentException if the configured class cannot be loaded or instantiated.
+     */
+    static FitnessFunction create(GAConfig config) {
+        String name = config.getFitnessFunction();
+        if (BITSTRING.equals(name)) {
+            return new BitstringFitness(config.getPackedSolution(), config.getLengthPunishingStrategy(), config.getLengthPunishingFactor());
+        }
+        try {
+            Class<? extends FitnessFunction> type = Class.forName(name).asSubclass(FitnessFunction.class);
+            try {
+                return type.getConstructor(GAConfig.class).newInstance(config);
+            } catch (NoSuchMethodException e) {
+                return type.getConstructor().newInstance();
+            }
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("Cannot create fitness function " + name, e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package be.brw.domain;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder event for one generation of a {@link GeneticAlgorithm}, committed by
+ * {@link GenerationProfile}. Its duration spans the whole generation; the phase times are those
+ * of {@link GenerationProfile.Phase}.
+ */
+@Name("be.brw.Generation")
+@Label("Generation")
+@Category("Genetic Algorithm")
+@Description("Time spent in, and operations of, each phase of a generation")
+final class GenerationEvent extends Event {
+
+    @Label("Generation")
+    int generation;
+
+    @Label("Selection Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long selectionTime;
+
+    @Label("Selections")
+    long selections;
+
+    @Label("Crossover Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long crossoverTime;
+
+    @Label("Crossovers")
+    long crossovers;
+
+    @Label("Mutation Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long mutationTime;
+
+    @Label("Mutations")
+    long mutations;
+
+    @Label("Leftover Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long leftoverTime;
+
+    @Label("Leftovers")
+    long leftovers;
+
+    @Label("Evaluation Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long evaluationTime;
+
+    @Label("Evaluations")
+    long evaluations;
+}
@@ -0,0 +1,23 @@
+package be.brw.domain;
+
+/**
+ * Receives a {@link GenerationSnapshot} after every generation of a {@link GeneticAlgorithm}.
+ * <p>
+ * Snapshots are delivered asynchronously, in generation order, on a thread of their own that
+ * the engine never uses, so a listener never stalls the engine. A listener that falls too far behind misses
+ * snapshots rather than slowing the run down. To stop a run early, a listener can call
+ * {@link GeneticAlgorithm#requestStop()}.
+ * </p>
+ *
+ * @see GeneticAlgorithm#addGenerationListener(GenerationListener)
+ */
+@FunctionalInterface
+public interface GenerationListener {
+
+    /**
+     * Handles the statistics of a generation.
+     *
+     * @param snapshot The statistics.
+     */
+    void onGeneration(GenerationSnapshot snapshot);
+}
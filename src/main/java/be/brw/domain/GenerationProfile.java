@@ -0,0 +1,198 @@
+package be.brw.domain;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-phase timers and counters of a {@link GeneticAlgorithm} run, enabled with the
+ * {@code instrumentation} configuration key.
+ * <p>
+ * Every generation accumulates the time spent in, and the number of operations of, each
+ * {@link Phase}. When the generation ends, its figures are added to the run totals and
+ * committed as a {@link GenerationEvent} to JDK Flight Recorder, if a recording is listening.
+ * Children bred in parallel record from several threads at once, so their phase times are
+ * summed over the threads and can exceed the wall-clock time of the generation.
+ * </p>
+ * <p>
+ * Note: Leftover processing runs inside crossover; the crossover time excludes it.
+ * </p>
+ */
+public final class GenerationProfile {
+
+    /**
+     * The phases of a generation that are timed.
+     */
+    public enum Phase {
+        /**
+         * Choosing survivors and parents; counts individuals selected.
+         */
+        SELECTION,
+        /**
+         * Building children from two parents; counts children.
+         */
+        CROSSOVER,
+        /**
+         * Mutating survivors and children; counts mutated individuals.
+         */
+        MUTATION,
+        /**
+         * Appending the genes past the shorter parent; counts children with leftover genes.
+         */
+        LEFTOVERS,
+        /**
+         * Deduplicating and scoring the new generation; counts individuals scored.
+         */
+        EVALUATION
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    /**
+     * Time spent in each phase during the current generation.
+     */
+    private final LongAdder[] generationNanos = new LongAdder[PHASES.length];
+    /**
+     * Operations of each phase during the current generation.
+     */
+    private final LongAdder[] generationCounts = new LongAdder[PHASES.length];
+    /**
+     * Time spent in each phase over all finished generations.
+     */
+    private final long[] totalNanos = new long[PHASES.length];
+    /**
+     * Operations of each phase over all finished generations.
+     */
+    private final long[] totalCounts = new long[PHASES.length];
+    /**
+     * The number of finished generations.
+     */
+    private int generations;
+    /**
+     * The flight recorder event of the current generation, or {@code null} between generations.
+     */
+    private GenerationEvent event;
+
+    public GenerationProfile() {
+        for (int i = 0; i < PHASES.length; i++) {
+            this.generationNanos[i] = new LongAdder();
+            this.generationCounts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Starts timing a new generation.
+     */
+    void beginGeneration() {
+        GenerationEvent event = new GenerationEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            this.event = event;
+        }
+    }
+
+    /**
+     * Adds time and operations to a phase of the current generation. Safe to call from several threads.
+     *
+     * @param phase The phase.
+     * @param nanos The time spent, in nanoseconds.
+     * @param count The number of operations.
+     */
+    void record(Phase phase, long nanos, long count) {
+        this.generationNanos[phase.ordinal()].add(nanos);
+        this.generationCounts[phase.ordinal()].add(count);
+    }
+
+    /**
+     * Ends the current generation: adds its figures to the totals and commits its flight recorder event.
+     *
+     * @param generation The number of the generation that was bred.
+     */
+    void endGeneration(int generation) {
+        long[] nanos = new long[PHASES.length];
+        long[] counts = new long[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            nanos[i] = this.generationNanos[i].sumThenReset();
+            counts[i] = this.generationCounts[i].sumThenReset();
+        }
+        nanos[Phase.CROSSOVER.ordinal()] -= nanos[Phase.LEFTOVERS.ordinal()];
+        for (int i = 0; i < PHASES.length; i++) {
+            this.totalNanos[i] += nanos[i];
+            this.totalCounts[i] += counts[i];
+        }
+        this.generations++;
+
+        GenerationEvent event = this.event;
+        this.event = null;
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.generation = generation;
+                event.selectionTime = nanos[Phase.SELECTION.ordinal()];
+                event.selections = counts[Phase.SELECTION.ordinal()];
+                event.crossoverTime = nanos[Phase.CROSSOVER.ordinal()];
+                event.crossovers = counts[Phase.CROSSOVER.ordinal()];
+                event.mutationTime = nanos[Phase.MUTATION.ordinal()];
+                event.mutations = counts[Phase.MUTATION.ordinal()];
+                event.leftoverTime = nanos[Phase.LEFTOVERS.ordinal()];
+                event.leftovers = counts[Phase.LEFTOVERS.ordinal()];
+                event.evaluationTime = nanos[Phase.EVALUATION.ordinal()];
+                event.evaluations = counts[Phase.EVALUATION.ordinal()];
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Adds the totals of another profile to this one, e.g. to summarize every island of a run.
+     *
+     * @param other The profile to add.
+     */
+    void add(GenerationProfile other) {
+        for (int i = 0; i < PHASES.length; i++) {
+            this.totalNanos[i] += other.totalNanos[i];
+            this.totalCounts[i] += other.totalCounts[i];
+        }
+        this.generations += other.generations;
+    }
+
+    /**
+     * Returns the time spent in a phase over all finished generations.
+     *
+     * @param phase The phase.
+     * @return The time, in nanoseconds.
+     */
+    public long getNanos(Phase phase) {
+        return this.totalNanos[phase.ordinal()];
+    }
+
+    /**
+     * Returns the number of operations of a phase over all finished generations.
+     *
+     * @param phase The phase.
+     * @return The number of operations; see {@link Phase} for what is counted.
+     */
+    public long getCount(Phase phase) {
+        return this.totalCounts[phase.ordinal()];
+    }
+
+    /**
+     * Returns the number of finished generations.
+     */
+    public int getGenerations() {
+        return this.generations;
+    }
+
+    /**
+     * Returns a one-line summary: the total milliseconds and operations of every phase.
+     */
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder("generations=").append(this.generations);
+        for (Phase phase : PHASES) {
+            summary.append(String.format("  %s=%.3fms/%d",
+                    phase.name().toLowerCase(),
+                    this.totalNanos[phase.ordinal()] / 1e6,
+                    this.totalCounts[phase.ordinal()]));
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,125 @@
+package be.brw.domain;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable statistics of one generation, delivered to {@link GenerationListener}s.
+ *
+ * @param generation The number of the generation; with islands, the generation every island has reached.
+ * @param populationSize The number of individuals summarized, over every island.
+ * @param bestFitness The highest fitness.
+ * @param meanFitness The average fitness.
+ * @param minFitness The lowest fitness.
+ * @param minGenomeLength The length of the shortest genome.
+ * @param meanGenomeLength The average genome length.
+ * @param maxGenomeLength The length of the longest genome.
+ * @param distinctGenomes The number of different genomes.
+ */
+public record GenerationSnapshot(int generation, int populationSize, int bestFitness, double meanFitness, int minFitness,
+                                 int minGenomeLength, double meanGenomeLength, int maxGenomeLength, int distinctGenomes) {
+
+    /**
+     * Returns the share of individuals whose genome no other individual has: 1 when every genome
+     * is different, approaching 0 when the population has collapsed into copies of one genome.
+     *
+     * @return The number of distinct genomes divided by the population size, or 0 for an empty population.
+     */
+    public double diversity() {
+        return this.populationSize == 0 ? 0 : (double) this.distinctGenomes / this.populationSize;
+    }
+
+    /**
+     * The fitness, genome length and genome {@linkplain Genome#fingerprint() fingerprint} of every
+     * individual of a generation, copied on the engine thread so that the statistics can be
+     * computed on the listeners' thread.
+     * <p>
+     * Copying is a single pass over the individuals, without hashing into a set; the distinct
+     * genomes are counted from the sorted fingerprints once a listener asks for the snapshot.
+     * The snapshot is computed once, however many listeners receive the digest.
+     * </p>
+     */
+    static final class Digest {
+        private final int generation;
+        private final int[] fitness;
+        private final int[] lengths;
+        private final long[] fingerprints;
+        private GenerationSnapshot snapshot;
+
+        private Digest(int generation, int size) {
+            this.generation = generation;
+            this.fitness = new int[size];
+            this.lengths = new int[size];
+            this.fingerprints = new long[size];
+        }
+
+        /**
+         * Copies what a snapshot needs from the individuals of one or more populations.
+         *
+         * @param generation The number of the generation.
+         * @param populations The individuals of every population; they must not be modified while copied.
+         * @return The digest.
+         */
+        static Digest of(int generation, List<List<Individual>> populations) {
+            int size = 0;
+            for (List<Individual> individuals : populations) {
+                size += individuals.size();
+            }
+            Digest digest = new Digest(generation, size);
+            int i = 0;
+            for (List<Individual> individuals : populations) {
+                for (Individual individual : individuals) {
+                    digest.fitness[i] = individual.getFitness();
+                    digest.lengths[i] = individual.getGenomeLength();
+                    digest.fingerprints[i] = individual.getPackedGenome().fingerprint();
+                    i++;
+                }
+            }
+            return digest;
+        }
+
+        /**
+         * Returns the statistics of the copied generation, computing them on the first call.
+         */
+        synchronized GenerationSnapshot snapshot() {
+            if (this.snapshot == null) {
+                this.snapshot = this.summarize();
+            }
+            return this.snapshot;
+        }
+
+        private GenerationSnapshot summarize() {
+            int size = this.fitness.length;
+            if (size == 0) {
+                return new GenerationSnapshot(this.generation, 0, 0, 0, 0, 0, 0, 0, 0);
+            }
+            int bestFitness = Integer.MIN_VALUE;
+            int minFitness = Integer.MAX_VALUE;
+            long fitnessSum = 0;
+            int minLength = Integer.MAX_VALUE;
+            int maxLength = 0;
+            long lengthSum = 0;
+            for (int i = 0; i < size; i++) {
+                int fitness = this.fitness[i];
+                int length = this.lengths[i];
+                bestFitness = Math.max(bestFitness, fitness);
+                minFitness = Math.min(minFitness, fitness);
+                fitnessSum += fitness;
+                minLength = Math.min(minLength, length);
+                maxLength = Math.max(maxLength, length);
+                lengthSum += length;
+            }
+            // Only this digest holds the fingerprints, so they can be sorted in place.
+            long[] fingerprints = this.fingerprints;
+            Arrays.sort(fingerprints);
+            int distinct = 1;
+            for (int i = 1; i < size; i++) {
+                if (fingerprints[i] != fingerprints[i - 1]) {
+                    distinct++;
+                }
+            }
+            return new GenerationSnapshot(this.generation, size, bestFitness, (double) fitnessSum / size, minFitness,
+                    minLength, (double) lengthSum / size, maxLength, distinct);
+        }
+    }
+}
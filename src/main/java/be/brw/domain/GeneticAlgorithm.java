@@ -1,9 +1,23 @@
 package be.brw.domain;
 
 import be.brw.config.GAConfig;
+import be.brw.domain.GenerationProfile.Phase;
 import be.brw.domain.strategy.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
 
 /**
  * Implements the core logic of a genetic algorithm to solve a bitstring-matching problem.
@@ -15,14 +29,41 @@ import java.util.*;
  */
 public class GeneticAlgorithm {
 
+    /**
+     * The pools with an explicit thread count, created on first use and shared by every instance.
+     */
+    private static final Map<Integer, ForkJoinPool> SHARED_POOLS = new ConcurrentHashMap<>();
+
     /**
      * Configuration object containing all parameters for the genetic algorithm.
      */
     private final GAConfig config;
     /**
-     * Random number generator used for all stochastic operations (selection, crossover, mutation).
+     * Random number generator used for all stochastic operations (selection, crossover, mutation),
+     * except for the children bred in parallel, which each get their own. Replaced when a run is resumed.
+     */
+    private Random random;
+    /**
+     * The function scoring every individual, {@link BitstringFitness} unless configured otherwise.
+     */
+    private final FitnessFunction fitnessFunction;
+    /**
+     * The cache in front of the configured fitness function, or {@code null} when caching is disabled.
      */
-    private final Random random;
+    private final FitnessCache fitnessCache;
+    /**
+     * Pool used to evaluate large populations in parallel, or {@code null} when evaluation is sequential.
+     */
+    private final ForkJoinPool evaluationPool;
+    /**
+     * Pool used to breed children in parallel, or {@code null} when breeding is sequential.
+     */
+    private final ForkJoinPool breedingPool;
+    /**
+     * Source of the per-child random number generators used for parallel breeding, or {@code null}.
+     * Split once per generation, and replayed that many times when a run is resumed.
+     */
+    private SplittableRandom breedingRandom;
     /**
      * The current population of individuals. This object is replaced with a new population each generation.
      */
@@ -31,6 +72,69 @@ public class GeneticAlgorithm {
      * The current number of generations
      */
     private int generationCount;
+    /**
+     * The population evolved in place of {@link #population} when the population storage is
+     * BIT_SLICED, 64 individuals per word, or {@code null}.
+     */
+    private BitSlicedPopulation bitSliced;
+    /**
+     * The two swapped generations used in arena mode, created when the first generation is bred.
+     */
+    private PopulationArena arena;
+    /**
+     * Scratch buffer for the indices of tournaments over the whole population in arena mode.
+     */
+    private int[] contestants;
+    /**
+     * Scratch buffer for the indices of tournaments over the survivors in arena mode, which can be
+     * fewer than the tournament size.
+     */
+    private int[] parentContestants;
+    /**
+     * A copy of the fittest individual of all generations so far, or {@code null} before the first one is recorded.
+     */
+    private Individual bestSoFar;
+    /**
+     * The island model this instance delegates to when more than one island is configured, or {@code null}.
+     */
+    private final IslandModel islandModel;
+    /**
+     * Per-phase timers and counters, or {@code null} when instrumentation is disabled.
+     */
+    private final GenerationProfile profile;
+    /**
+     * Delivers generation digests to the listeners, or {@code null} until the first listener is added.
+     */
+    private volatile SubmissionPublisher<GenerationSnapshot.Digest> snapshots;
+    /**
+     * The single thread the listeners run on, or {@code null} until the first listener is added.
+     */
+    private ExecutorService listenerExecutor;
+    /**
+     * Completed once the matching listener has handled every snapshot.
+     */
+    private final List<CompletableFuture<Void>> listenerCompletions = new ArrayList<>();
+    /**
+     * The number of snapshots a listener missed because it had too many pending.
+     */
+    private final AtomicLong droppedSnapshots = new AtomicLong();
+    /**
+     * Whether mutations are applied by {@link #mutateBatch(List, int, int)} once a generation is bred,
+     * rather than decided for every individual as it is bred.
+     */
+    private final boolean batchMutation;
+    /**
+     * Set by {@link #requestStop()}; checked before every generation.
+     */
+    private volatile boolean stopRequested;
+    /**
+     * The file checkpoints are written to, or {@code null} if the run is not checkpointed.
+     */
+    private final Path checkpointFile;
+    /**
+     * The {@link System#nanoTime()} of the last checkpoint, or of the start of the run.
+     */
+    private long lastCheckpoint;
 
     /**
      * Constructs a new GeneticAlgorithm instance and initializes the first population.
@@ -40,6 +144,26 @@ public class GeneticAlgorithm {
     public GeneticAlgorithm(GAConfig configuration){
         this.config = configuration;
         this.random = new Random(config.getSeed());
+        FitnessFunction function = FitnessFunction.create(config);
+        // BITSTRING scores children incrementally from their parents, which a cache lookup would only slow down.
+        this.fitnessCache = config.getFitnessCacheSize() > 0 && !(function instanceof BitstringFitness)
+                ? new FitnessCache(function, config.getFitnessCacheSize()) : null;
+        this.fitnessFunction = this.fitnessCache != null ? this.fitnessCache : function;
+        this.evaluationPool = sharedPool(config.isParallelEvaluation(), config.getEvaluationThreads());
+        this.breedingPool = sharedPool(config.isParallelBreeding(), config.getBreedingThreads());
+        this.breedingRandom = config.isParallelBreeding() ? new SplittableRandom(config.getSeed()) : null;
+        this.generationCount = 0;
+        this.profile = config.isInstrumentation() ? new GenerationProfile() : null;
+        this.batchMutation = config.getMutationEngine() != MutationEngine.PER_INDIVIDUAL;
+        this.checkpointFile = config.getCheckpointFile() != null ? Path.of(config.getCheckpointFile()) : null;
+        this.lastCheckpoint = System.nanoTime();
+
+        if (config.getIslandCount() > 1) {
+            // Every island owns its population; this instance only coordinates.
+            this.islandModel = new IslandModel(config);
+            return;
+        }
+        this.islandModel = null;
 
         // Initialize the starting population based on the configuration.
         this.population = new Population(
@@ -51,8 +175,52 @@ public class GeneticAlgorithm {
                 config.getLengthPunishingStrategy(),
                 config.getLengthPunishingFactor()
         );
+        if (!(this.fitnessFunction instanceof BitstringFitness)) {
+            // The random population is scored by bitstring matching; score it again with the configured (or cached) function.
+            this.population = new Population(
+                    config.getPackedSolution(),
+                    this.population.getIndividuals(),
+                    this.fitnessFunction,
+                    this.evaluationPool,
+                    config.getParallelEvaluationThreshold()
+            );
+        }
+        if (config.getPopulationStorage() == PopulationStorage.BIT_SLICED) {
+            this.bitSliced = this.transpose(this.population);
+        }
+    }
 
-        this.generationCount = 0;
+    /**
+     * Transposes a population of fixed-length genomes into a {@link BitSlicedPopulation}.
+     */
+    private BitSlicedPopulation transpose(Population population) {
+        return new BitSlicedPopulation(
+                config.getPackedSolution(),
+                population.getIndividuals(),
+                config.getLengthPunishingStrategy(),
+                config.getLengthPunishingFactor()
+        );
+    }
+
+    /**
+     * Returns the pool for parallel evaluation or breeding, as requested by the configuration.
+     * <p>
+     * Pools with an explicit thread count are shared by every instance in the process that asks
+     * for the same count, so islands and concurrent experiments do not multiply the number of
+     * worker threads. Their idle workers retire on their own, so they are never shut down.
+     * </p>
+     *
+     * @param enabled Whether the work should run in parallel at all.
+     * @param threads The number of worker threads; 0 or less means the common pool.
+     * @return The pool, or {@code null} if the work is sequential.
+     */
+    private static ForkJoinPool sharedPool(boolean enabled, int threads) {
+        if (!enabled) {
+            return null;
+        }
+        return threads > 0
+                ? SHARED_POOLS.computeIfAbsent(threads, ForkJoinPool::new)
+                : ForkJoinPool.commonPool();
     }
 
     /**
@@ -64,6 +232,141 @@ public class GeneticAlgorithm {
         return this.generationCount;
     }
 
+    /**
+     * Gets the fitness cache and its hit and miss counters.
+     *
+     * @return The cache, or {@code null} if caching is disabled or the work is split across islands.
+     */
+    public FitnessCache getFitnessCache(){
+        return this.islandModel == null ? this.fitnessCache : null;
+    }
+
+    /**
+     * Gets the fittest individual found in any generation so far. It is a copy, so it is not
+     * affected by later generations.
+     *
+     * @return The best individual so far, or {@code null} if no generation was evolved yet.
+     */
+    public Individual getBestSoFar(){
+        if (this.islandModel != null) {
+            return this.islandModel.getBestSoFar();
+        }
+        return this.bestSoFar;
+    }
+
+    /**
+     * Gets the per-phase timers and counters of the generations evolved so far.
+     *
+     * @return The profile, summed over every island, or {@code null} if instrumentation is disabled.
+     */
+    public GenerationProfile getProfile(){
+        if (this.islandModel != null && this.profile != null) {
+            return this.islandModel.getProfile();
+        }
+        return this.profile;
+    }
+
+    /**
+     * Registers a listener that receives a {@link GenerationSnapshot} after every generation.
+     * <p>
+     * Snapshots are handed to a {@link SubmissionPublisher} without blocking: when a listener
+     * has too many snapshots pending, the new one is dropped for that listener instead of
+     * waiting for it. With islands, a snapshot covering every island is published at each
+     * migration point.
+     * </p>
+     * <p>
+     * Listeners run on a single thread of their own, never on the pools used for evaluation and
+     * breeding, so a slow listener cannot take workers from the engine. While a listener is
+     * registered, the engine only copies the fitness, length and a fingerprint of every genome;
+     * the statistics are computed on the listener thread, once per generation.
+     * </p>
+     *
+     * @param listener The listener.
+     * @return A future completed once {@link #runAlgorithm()} has returned and the listener has handled every snapshot.
+     */
+    public synchronized CompletableFuture<Void> addGenerationListener(GenerationListener listener) {
+        if (this.snapshots == null) {
+            this.listenerExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "generation-listeners");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.snapshots = new SubmissionPublisher<>(this.listenerExecutor, Flow.defaultBufferSize());
+        }
+        CompletableFuture<Void> completion = this.snapshots.consume(digest -> listener.onGeneration(digest.snapshot()));
+        this.listenerCompletions.add(completion);
+        return completion;
+    }
+
+    /**
+     * Gets the number of snapshots listeners missed because they fell behind.
+     *
+     * @return The number of dropped snapshots, counted once per listener that missed one.
+     */
+    public long getDroppedSnapshots(){
+        return this.droppedSnapshots.get();
+    }
+
+    /**
+     * Asks the algorithm to stop before the next generation, e.g. from a {@link GenerationListener}.
+     * {@link #runAlgorithm()} then returns the fittest individual of the current population.
+     * Can be called from any thread.
+     */
+    public void requestStop(){
+        this.stopRequested = true;
+        if (this.islandModel != null) {
+            this.islandModel.requestStop();
+        }
+    }
+
+    /**
+     * Returns whether a listener is registered, so that nothing is built for {@link #publish(int, List)} otherwise.
+     */
+    private boolean hasListeners() {
+        SubmissionPublisher<GenerationSnapshot.Digest> snapshots = this.snapshots;
+        return snapshots != null && snapshots.hasSubscribers();
+    }
+
+    /**
+     * Publishes a snapshot of the given populations to the listeners; only called when {@link #hasListeners()}.
+     */
+    private void publish(int generation, List<List<Individual>> populations) {
+        this.snapshots.offer(GenerationSnapshot.Digest.of(generation, populations), (subscriber, digest) -> {
+            this.droppedSnapshots.incrementAndGet();
+            return false;
+        });
+    }
+
+    /**
+     * Closes the publisher; listeners still get the pending snapshots, then complete, after
+     * which the listener thread is shut down.
+     */
+    private synchronized void closeListeners() {
+        if (this.snapshots == null) {
+            return;
+        }
+        this.snapshots.close();
+        ExecutorService executor = this.listenerExecutor;
+        CompletableFuture.allOf(this.listenerCompletions.toArray(CompletableFuture[]::new))
+                .whenComplete((result, failure) -> executor.shutdown());
+    }
+
+    /**
+     * Returns the start time of a timed phase, or 0 without reading the clock when instrumentation is disabled.
+     */
+    private long startTimer() {
+        return this.profile != null ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records the time since {@code start} and {@code count} operations for a phase, if instrumentation is enabled.
+     */
+    private void stopTimer(Phase phase, long start, int count) {
+        if (this.profile != null) {
+            this.profile.record(phase, System.nanoTime() - start, count);
+        }
+    }
+
     /**
      * Executes the genetic algorithm for a configured number of generations.
      * <p>
@@ -71,58 +374,645 @@ public class GeneticAlgorithm {
      * to evolve the population toward the target solution. The process terminates if a perfect
      * solution is found or the maximum number of generations is reached.
      * </p>
+     * <p>
+     * When the configuration asks for more than one island, the work is handed to an
+     * {@link IslandModel} instead, which evolves several populations in parallel.
+     * </p>
      * @return The fittest individual found after the algorithm completes or finds a solution.
      */
     public Individual runAlgorithm() {
-        int maxGeneration = config.getMaxGeneration();
-        MutationTargetStrategy mutTarget = config.getMutationTargetStrategy();
-        int eliteCount = (int) Math.round(config.getPopulationSize() * (1.0 - config.getCrossoverRate()));
-        for (int i = 0; i <= maxGeneration; i++){
-            this.generationCount = i;
+        try {
+            if (this.islandModel != null) {
+                IslandModel islandModel = this.islandModel;
+                Individual fittest = islandModel.run(generation -> {
+                    if (this.hasListeners()) {
+                        this.publish(generation, islandModel.populations());
+                    }
+                });
+                this.generationCount = islandModel.getGenerationCount();
+                return fittest;
+            }
 
-            List<Individual> individuals = this.population.getIndividuals();
+            if (config.isCheckpointResume() && this.checkpointFile != null && Files.exists(this.checkpointFile)) {
+                try {
+                    this.resume(this.checkpointFile);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Could not resume from checkpoint " + this.checkpointFile, e);
+                }
+                System.out.println("Resumed from " + this.checkpointFile + " at generation " + this.generationCount);
+            }
 
-            // Check for a perfect solution in the current population.
-            for (Individual individual: individuals){
-                if(individual.getGenome().equals(this.config.getSolution())){
-                    System.out.println("Solution found in " + i + " generations");
-                    return this.population.getFittest();
+            int maxGeneration = config.getMaxGeneration();
+            if (this.evolveUntil(maxGeneration)) {
+                System.out.println("Solution found in " + this.generationCount + " generations");
+            } else if (this.stopRequested) {
+                System.out.println("Stopped after " + this.generationCount + " generations");
+                if (this.checkpointFile != null) {
+                    this.writeCheckpoint();
                 }
+            } else {
+                System.out.println("No solution found in " + maxGeneration + " generations");
+            }
+            if (this.fitnessCache != null) {
+                System.out.println(this.fitnessCache);
+            }
+            return this.getFittest();
+        } finally {
+            this.closeListeners();
+        }
+    }
+
+    /**
+     * Evolves the population until it contains a perfect solution or generation {@code lastGeneration}
+     * has been reached, whichever comes first. Evolution can be resumed by calling this method
+     * again with a later generation.
+     *
+     * @param lastGeneration The last generation to evolve to.
+     * @return {@code true} if the current population contains a perfect solution.
+     */
+    boolean evolveUntil(int lastGeneration) {
+        while (true) {
+            this.recordBestSoFar();
+            if (this.bitSliced != null ? this.bitSliced.isSolved() : this.population.isSolved()) {
+                return true;
+            }
+            if (this.generationCount >= lastGeneration || this.stopRequested) {
+                return false;
+            }
+            if (this.profile != null) {
+                this.profile.beginGeneration();
+            }
+            if (this.bitSliced != null) {
+                this.breedBitSlicedGeneration();
+            } else if (config.isArenaMode()) {
+                this.breedArenaGeneration();
+            } else {
+                this.breedGeneration();
+            }
+            this.generationCount++;
+            if (this.profile != null) {
+                this.profile.endGeneration(this.generationCount);
+            }
+            if (this.hasListeners()) {
+                this.publish(this.generationCount, List.of(this.getIndividuals()));
+            }
+            if (this.checkpointFile != null && this.isCheckpointDue()) {
+                this.writeCheckpoint();
+            }
+        }
+    }
+
+    /**
+     * Returns whether the checkpoint interval, in generations or in seconds, has elapsed.
+     */
+    private boolean isCheckpointDue() {
+        int interval = config.getCheckpointInterval();
+        int seconds = config.getCheckpointSeconds();
+        return (interval > 0 && this.generationCount % interval == 0)
+                || (seconds > 0 && System.nanoTime() - this.lastCheckpoint >= seconds * 1_000_000_000L);
+    }
+
+    /**
+     * Writes the current state of the run to the checkpoint file. A failed write is reported and
+     * the run goes on, keeping the previous checkpoint.
+     */
+    private void writeCheckpoint() {
+        Checkpoint checkpoint = new Checkpoint(
+                config.getEvolutionHash(),
+                this.generationCount,
+                this.random,
+                this.bestSoFar,
+                this.getIndividuals()
+        );
+        try {
+            checkpoint.write(this.checkpointFile);
+        } catch (IOException e) {
+            System.err.println("Could not write checkpoint " + this.checkpointFile + ": " + e.getMessage());
+        }
+        this.lastCheckpoint = System.nanoTime();
+    }
+
+    /**
+     * Continues a run from a checkpoint, as if it had never been interrupted.
+     * <p>
+     * The population, generation count, best individual so far and random number generators are
+     * restored, so that the remaining generations are the same as in the run that wrote the
+     * checkpoint. The checkpoint must have been written with the same evolution settings (see
+     * {@link GAConfig#getEvolutionHash()}); the maximum generation may differ.
+     * </p>
+     *
+     * @param file The checkpoint file.
+     * @throws IOException if the file cannot be read or is not a checkpoint.
+     * @throws IllegalArgumentException if the checkpoint was written with other settings.
+     * @throws UnsupportedOperationException if the work is split across islands.
+     */
+    public void resume(Path file) throws IOException {
+        if (this.islandModel != null) {
+            throw new UnsupportedOperationException("Checkpoints are not supported with more than one island");
+        }
+        Checkpoint checkpoint = Checkpoint.read(file);
+        if (checkpoint.configHash() != config.getEvolutionHash()) {
+            throw new IllegalArgumentException("Checkpoint " + file + " was written with other settings");
+        }
+
+        this.generationCount = checkpoint.generationCount();
+        this.random = checkpoint.random();
+        if (this.breedingRandom != null) {
+            this.breedingRandom = new SplittableRandom(config.getSeed());
+            for (int i = 0; i < this.generationCount; i++) {
+                this.breedingRandom.split();
             }
+        }
+        this.bestSoFar = checkpoint.bestSoFar();
+        // Rescored on creation; the arena, if any, is rebuilt from it on the next generation.
+        this.population = new Population(
+                config.getPackedSolution(),
+                checkpoint.individuals(),
+                this.fitnessFunction,
+                this.evaluationPool,
+                config.getParallelEvaluationThreshold()
+        );
+        this.arena = null;
+        if (this.bitSliced != null) {
+            this.bitSliced = this.transpose(this.population);
+        }
+        this.lastCheckpoint = System.nanoTime();
+    }
+
+    /**
+     * Keeps a copy of the current fittest individual if it beats the best one so far.
+     * The fittest individual is recorded by the evaluation, so this does not scan the population.
+     */
+    private void recordBestSoFar() {
+        if (this.bitSliced != null) {
+            if (this.bestSoFar == null || this.bitSliced.getBestFitness() > this.bestSoFar.getFitness()) {
+                // Gathered from the transposed genes, so it is a copy already.
+                this.bestSoFar = this.bitSliced.getFittest();
+            }
+            return;
+        }
+        Individual fittest = this.population.getFittest();
+        if (this.bestSoFar == null || fittest.getFitness() > this.bestSoFar.getFitness()) {
+            Individual copy = new Individual(new Genome(fittest.getGenomeLength()));
+            copy.copyFrom(fittest);
+            this.bestSoFar = copy;
+        }
+    }
+
+    /**
+     * Replaces the population with the next generation, bred from the current one.
+     */
+    private void breedGeneration() {
+        MutationTargetStrategy mutTarget = config.getMutationTargetStrategy();
+        int eliteCount = (int) Math.round(config.getPopulationSize() * (1.0 - config.getCrossoverRate()));
+        List<Individual> individuals = this.population.getIndividuals();
 
-            // 1. Selection: Select the "elite" individuals to survive to the next generation.
-            List<Individual> survivors = selection(individuals, eliteCount);
+        // 1. Selection: Select the "elite" individuals to survive to the next generation.
+        long start = this.startTimer();
+        List<Individual> survivors = selection(individuals, eliteCount);
+        this.stopTimer(Phase.SELECTION, start, survivors.size());
 
-            // 2. Mutation (on parents): Optionally mutate the selected survivors.
-            if (mutTarget == MutationTargetStrategy.PARENTS || mutTarget == MutationTargetStrategy.BOTH) {
+        // 2. Mutation (on parents): Optionally mutate the selected survivors.
+        if (mutTarget == MutationTargetStrategy.PARENTS || mutTarget == MutationTargetStrategy.BOTH) {
+            if (this.batchMutation) {
+                this.mutateBatch(survivors, 0, survivors.size());
+            } else {
                 for (int j = 0; j < survivors.size(); j++) {
                     if (random.nextDouble() <= config.getMutationRate()) {
+                        start = this.startTimer();
                         survivors.set(j, mutate(survivors.get(j)));
+                        this.stopTimer(Phase.MUTATION, start, 1);
                     }
                 }
             }
+        }
 
-            // 3. Crossover and Mutation (on children): Create new children to fill the rest of the population.
-            List<Individual> children = new ArrayList<>(config.getPopulationSize() - eliteCount);
-            while (eliteCount + children.size() < config.getPopulationSize()) {
-                List<Individual> parents = selection(survivors, 2);
+        // 3. Crossover and Mutation (on children): Create new children to fill the rest of the population.
+        // The next generation gets its own list: survivors may be a view over the current one.
+        List<Individual> nextGeneration = new ArrayList<>(config.getPopulationSize());
+        nextGeneration.addAll(survivors);
+        // Survivor fitness does not change while breeding, so a roulette wheel is built only once.
+        RouletteWheel parentWheel = config.getSelectionStrategy() == SelectionStrategy.ROULETTE
+                ? RouletteWheel.of(survivors)
+                : null;
+        if (this.breedingPool != null) {
+            Individual[] children = new Individual[config.getPopulationSize()];
+            this.breedChildren(survivors, parentWheel, children, eliteCount);
+            for (int j = eliteCount; j < children.length; j++) {
+                nextGeneration.add(children[j]);
+            }
+        } else {
+            for (int j = eliteCount; j < config.getPopulationSize(); j++) {
+                start = this.startTimer();
+                List<Individual> parents = parentWheel != null
+                        ? spin(parentWheel, 2)
+                        : selection(survivors, 2);
+                this.stopTimer(Phase.SELECTION, start, parents.size());
                 Individual child = crossover(parents.getFirst(), parents.getLast());
-                if (mutTarget == MutationTargetStrategy.CHILDREN || mutTarget == MutationTargetStrategy.BOTH) {
+                if (!this.batchMutation && (mutTarget == MutationTargetStrategy.CHILDREN || mutTarget == MutationTargetStrategy.BOTH)) {
                     if (random.nextDouble() <= config.getMutationRate()) {
+                        start = this.startTimer();
                         mutate(child);
+                        this.stopTimer(Phase.MUTATION, start, 1);
+                    }
+                }
+
+                nextGeneration.add(child);
+            }
+        }
+        if (this.batchMutation && (mutTarget == MutationTargetStrategy.CHILDREN || mutTarget == MutationTargetStrategy.BOTH)) {
+            this.mutateBatch(nextGeneration, eliteCount, nextGeneration.size());
+        }
+
+        // Create the next generation's population from survivors and new children.
+        start = this.startTimer();
+        List<Individual[]> sharedEvaluations = this.deduplicate(nextGeneration);
+        this.population = new Population(
+                config.getPackedSolution(),
+                nextGeneration,
+                this.fitnessFunction,
+                this.evaluationPool,
+                config.getParallelEvaluationThreshold()
+        );
+        shareEvaluations(sharedEvaluations);
+        this.stopTimer(Phase.EVALUATION, start, this.population.getScoredCount());
+    }
+
+    /**
+     * Handles the genomes that occur more than once in a new generation, as configured by the
+     * {@link DeduplicationStrategy}, before the generation is evaluated.
+     * <p>
+     * Genomes are collected in a hash set; every individual whose genome is already in it is a
+     * duplicate. With SHARE_FITNESS, duplicates are marked as evaluated so that scoring skips
+     * them, and must be handed to {@link #shareEvaluations(List)} once the first occurrence has
+     * been scored. With REPLACE_RANDOM, they are replaced by new random individuals. The same
+     * instance occurring twice (a survivor selected twice) only counts for REPLACE_RANDOM, as it
+     * is scored once anyway.
+     * </p>
+     *
+     * @param generation The new generation, not evaluated yet.
+     * @return Pairs of a duplicate and the individual it duplicates, to share the evaluation of; empty unless SHARE_FITNESS.
+     */
+    private List<Individual[]> deduplicate(List<Individual> generation) {
+        DeduplicationStrategy strategy = config.getDeduplicationStrategy();
+        if (strategy == DeduplicationStrategy.NONE) {
+            return List.of();
+        }
+        Genome solution = config.getPackedSolution();
+        Map<Genome, Individual> firstOccurrences = new HashMap<>(generation.size() * 4 / 3 + 1);
+        List<Individual[]> sharedEvaluations = new ArrayList<>();
+        for (int i = 0; i < generation.size(); i++) {
+            Individual individual = generation.get(i);
+            Individual first = firstOccurrences.putIfAbsent(individual.getPackedGenome(), individual);
+            if (first == null) {
+                continue;
+            }
+            if (strategy == DeduplicationStrategy.REPLACE_RANDOM) {
+                Individual replacement = this.randomIndividual();
+                if (config.isArenaMode()) {
+                    // Arena individuals are never shared, and keep their preallocated genome.
+                    individual.copyFrom(replacement);
+                } else {
+                    generation.set(i, replacement);
+                }
+            } else if (first != individual) {
+                // Skipped by the evaluation; the real fitness is shared afterwards.
+                individual.setEvaluatedFitness(solution, 0);
+                sharedEvaluations.add(new Individual[]{individual, first});
+            }
+        }
+        return sharedEvaluations;
+    }
+
+    /**
+     * Gives every duplicate collected by {@link #deduplicate(List)} the evaluation of the individual it duplicates.
+     */
+    private static void shareEvaluations(List<Individual[]> sharedEvaluations) {
+        for (Individual[] pair : sharedEvaluations) {
+            pair[0].shareEvaluation(pair[1]);
+        }
+    }
+
+    /**
+     * Creates an individual with a random genome whose length lies within the configured bounds.
+     * It is not evaluated yet.
+     */
+    private Individual randomIndividual() {
+        int length = random.nextInt(config.getMaxGenomeLength() - config.getMinGenomeLength() + 1) + config.getMinGenomeLength();
+        Genome genome = new Genome(length);
+        for (int j = 0; j < length; j++) {
+            genome.add((byte) random.nextInt(2));
+        }
+        return new Individual(genome);
+    }
+
+    /**
+     * Breeds the next generation in arena mode, where the steady-state generation loop does not allocate.
+     * <p>
+     * Two preallocated generations (see {@link PopulationArena}) are swapped every generation:
+     * survivors are copied into the next buffer and children are bred directly into the
+     * genomes of the remaining slots. Because survivors are copies rather than shared
+     * instances, mutating one never affects another slot, so seeded runs can differ from
+     * the default mode.
+     * </p>
+     */
+    private void breedArenaGeneration() {
+        int populationSize = config.getPopulationSize();
+        MutationTargetStrategy mutTarget = config.getMutationTargetStrategy();
+        SelectionStrategy selectionStrategy = config.getSelectionStrategy();
+        Genome solution = config.getPackedSolution();
+        int eliteCount = (int) Math.round(populationSize * (1.0 - config.getCrossoverRate()));
+
+        if (this.arena == null) {
+            // Room for the longest parent plus some growth from ADD mutations before a genome has to grow.
+            int genomeCapacity = Math.max(config.getMaxGenomeLength(), solution.size()) + Genome.WORD_SIZE;
+            this.arena = new PopulationArena(
+                    this.population.getIndividuals(),
+                    eliteCount,
+                    genomeCapacity,
+                    config.getPopulationStorage() == PopulationStorage.OFF_HEAP,
+                    individuals -> new Population(
+                            individuals,
+                            this.fitnessFunction,
+                            this.evaluationPool,
+                            config.getParallelEvaluationThreshold()
+                    )
+            );
+            this.contestants = new int[Math.max(0, Math.min(config.getTournamentSize(), populationSize))];
+            this.parentContestants = new int[Math.max(0, Math.min(config.getTournamentSize(), eliteCount))];
+        }
+        PopulationArena arena = this.arena;
+        int[] contestants = this.contestants;
+
+        // 1. Selection: Copy the "elite" individuals into the next generation.
+        long start = this.startTimer();
+        Individual[] next = arena.next();
+        switch (selectionStrategy) {
+            case ELITISM -> {
+                Individual[] ranking = arena.rankByFitness();
+                for (int j = 0; j < eliteCount; j++) {
+                    next[j].copyFrom(ranking[j]);
+                }
+            }
+            case ROULETTE -> {
+                arena.wheel().rebuild(arena.currentView());
+                for (int j = 0; j < eliteCount; j++) {
+                    next[j].copyFrom(arena.wheel().spin(this.random));
+                }
+            }
+            case TOURNAMENT -> {
+                for (int j = 0; j < eliteCount; j++) {
+                    next[j].copyFrom(tournament(arena.currentView(), contestants, this.random));
+                }
+            }
+        }
+
+        this.stopTimer(Phase.SELECTION, start, eliteCount);
+
+        // 2. Mutation (on parents): Optionally mutate the copied survivors.
+        List<Individual> survivors = arena.nextSurvivors();
+        if (mutTarget == MutationTargetStrategy.PARENTS || mutTarget == MutationTargetStrategy.BOTH) {
+            if (this.batchMutation) {
+                this.mutateBatch(survivors, 0, eliteCount);
+            } else {
+                for (int j = 0; j < eliteCount; j++) {
+                    if (random.nextDouble() <= config.getMutationRate()) {
+                        start = this.startTimer();
+                        mutate(next[j]);
+                        this.stopTimer(Phase.MUTATION, start, 1);
                     }
                 }
+            }
+        }
+
+        // 3. Crossover and Mutation (on children): Breed children into the remaining slots.
+        RouletteWheel parentWheel = null;
+        if (selectionStrategy == SelectionStrategy.ROULETTE) {
+            arena.wheel().rebuild(survivors);
+            parentWheel = arena.wheel();
+        }
+        if (this.breedingPool != null) {
+            this.breedChildren(survivors, parentWheel, next, eliteCount);
+        } else {
+            for (int j = eliteCount; j < populationSize; j++) {
+                this.breedChild(survivors, parentWheel, this.parentContestants, next[j], this.random);
+            }
+        }
+
+        // The written buffer becomes the current generation; only changed individuals are scored.
+        arena.swap();
+        if (this.batchMutation && (mutTarget == MutationTargetStrategy.CHILDREN || mutTarget == MutationTargetStrategy.BOTH)) {
+            this.mutateBatch(arena.currentView(), eliteCount, populationSize);
+        }
+        this.population = arena.currentPopulation();
+        start = this.startTimer();
+        List<Individual[]> sharedEvaluations = this.deduplicate(arena.currentView());
+        this.population.updateFitness(solution);
+        shareEvaluations(sharedEvaluations);
+        this.stopTimer(Phase.EVALUATION, start, this.population.getScoredCount());
+    }
+
+    /**
+     * Breeds the next generation in the bit-sliced layout, 64 individuals per word.
+     * <p>
+     * The generation follows the same steps as {@link #breedGeneration()}, but every step works
+     * on whole blocks of the transposed genomes; see {@link BitSlicedPopulation}. Selection is
+     * always by tournament, crossover by masks over the two parents' genes, and mutation sets
+     * random genes with the geometric gaps of the batch engine.
+     * </p>
+     */
+    private void breedBitSlicedGeneration() {
+        BitSlicedPopulation population = this.bitSliced;
+        int populationSize = population.size();
+        MutationTargetStrategy mutTarget = config.getMutationTargetStrategy();
+        int eliteCount = (int) Math.round(populationSize * (1.0 - config.getCrossoverRate()));
+        int tournamentSize = config.getTournamentSize();
+        double mutationRate = config.getMutationRate();
+        boolean perGene = config.getMutationEngine() == MutationEngine.BATCH_PER_BIT;
+
+        // 1. Selection: Tournament winners fill the survivor lanes.
+        long start = this.startTimer();
+        population.selectSurvivors(eliteCount, tournamentSize, this.random);
+        this.stopTimer(Phase.SELECTION, start, eliteCount);
+
+        // 2. Mutation (on parents): Optionally mutate the survivors.
+        if (mutTarget == MutationTargetStrategy.PARENTS || mutTarget == MutationTargetStrategy.BOTH) {
+            start = this.startTimer();
+            int mutations = population.mutate(0, eliteCount, mutationRate, perGene, this.random);
+            this.stopTimer(Phase.MUTATION, start, mutations);
+        }
+
+        // 3. Crossover and Mutation (on children): Breed children into the remaining lanes.
+        start = this.startTimer();
+        population.breedChildren(eliteCount, tournamentSize, config.getCrossoverStrategy(), this.random);
+        this.stopTimer(Phase.CROSSOVER, start, populationSize - eliteCount);
+        if (mutTarget == MutationTargetStrategy.CHILDREN || mutTarget == MutationTargetStrategy.BOTH) {
+            start = this.startTimer();
+            int mutations = population.mutate(eliteCount, populationSize, mutationRate, perGene, this.random);
+            this.stopTimer(Phase.MUTATION, start, mutations);
+        }
+
+        // The bred generation becomes the current one; only blocks with children or mutations are scored.
+        start = this.startTimer();
+        population.swap();
+        this.stopTimer(Phase.EVALUATION, start, population.getScoredCount());
+    }
+
+    /**
+     * Breeds the children of slots {@code [from, children.length)} on the breeding pool.
+     * <p>
+     * Every slot draws from its own {@link SplittableRandom}, split off in slot order before any
+     * work is handed out, and parents are only read while breeding. A slot's child therefore
+     * only depends on the seed and the generation, not on the number of threads or on which
+     * thread breeds it.
+     * </p>
+     *
+     * @param survivors The parents to breed from.
+     * @param parentWheel The roulette wheel built over the survivors, or {@code null} if the selection is not ROULETTE.
+     * @param children The slots to breed into; {@code null} slots get a newly allocated child.
+     * @param from The first slot to breed.
+     */
+    private void breedChildren(List<Individual> survivors, RouletteWheel parentWheel, Individual[] children, int from) {
+        SplittableRandom generationRandom = this.breedingRandom.split();
+        SplittableRandom[] slotRandoms = new SplittableRandom[children.length];
+        for (int j = from; j < children.length; j++) {
+            slotRandoms[j] = generationRandom.split();
+        }
+        int contestantCount = Math.max(0, Math.min(config.getTournamentSize(), survivors.size()));
+        // Aim for a few chunks per worker so uneven genome lengths still balance out.
+        int chunkSize = Math.max(1, (children.length - from) / (this.breedingPool.getParallelism() * 4));
+        this.breedingPool.invoke(new BreedingTask(survivors, parentWheel, children, slotRandoms, contestantCount, from, children.length, chunkSize));
+    }
 
-                children.add(child);
+    /**
+     * Selects two parents, crosses them over and optionally mutates the child.
+     * <p>
+     * The parents are never modified: when the crossover guard falls back to the fittest
+     * parent, the child is a copy of it rather than the parent itself.
+     * </p>
+     *
+     * @param survivors The parents to breed from.
+     * @param parentWheel The roulette wheel built over the survivors, or {@code null} if the selection is not ROULETTE.
+     * @param contestants Scratch buffer for TOURNAMENT selection.
+     * @param target The individual to overwrite with the child, or {@code null} to allocate a new one.
+     * @param random The random number generator for selection, crossover and mutation.
+     * @return The child.
+     */
+    private Individual breedChild(List<Individual> survivors, RouletteWheel parentWheel, int[] contestants, Individual target, RandomGenerator random) {
+        long start = this.startTimer();
+        Individual parent1;
+        Individual parent2;
+        switch (config.getSelectionStrategy()) {
+            // ELITISM survivors are already ranked, so the parents are always the two fittest.
+            case ELITISM -> {
+                parent1 = survivors.getFirst();
+                parent2 = survivors.get(Math.min(1, survivors.size() - 1));
             }
+            case ROULETTE -> {
+                parent1 = parentWheel.spin(random);
+                parent2 = parentWheel.spin(random);
+            }
+            default -> {
+                parent1 = tournament(survivors, contestants, random);
+                parent2 = tournament(survivors, contestants, random);
+            }
+        }
+
+        this.stopTimer(Phase.SELECTION, start, 2);
 
-            // Create the next generation's population from survivors and new children.
-            survivors.addAll(children);
-            this.population = new Population(config.getSolution(), survivors, config.getSeed(), config.getLengthPunishingStrategy(), config.getLengthPunishingFactor());
+        start = this.startTimer();
+        Individual child;
+        if (parent1.getGenomeLength() <= 1 || parent2.getGenomeLength() <= 1) {
+            // Same fallback as crossover(): the child is a copy of the fittest parent.
+            Individual fittest = parent1.getFitness() > parent2.getFitness() ? parent1 : parent2;
+            child = target != null ? target : new Individual(new Genome(fittest.getGenomeLength()));
+            child.copyFrom(fittest);
+        } else if (target != null) {
+            child = target;
+            child.getPackedGenome().clear();
+            crossoverInto(parent1, parent2, child.getPackedGenome(), random);
+            child.markDirty();
+        } else {
+            Genome newGenome = new Genome(Math.max(parent1.getGenomeLength(), parent2.getGenomeLength()));
+            crossoverInto(parent1, parent2, newGenome, random);
+            child = new Individual(newGenome);
         }
+        this.stopTimer(Phase.CROSSOVER, start, 1);
 
-        System.out.println("No solution found in " + maxGeneration + " generations");
-        return this.population.getFittest();
+        MutationTargetStrategy mutTarget = config.getMutationTargetStrategy();
+        // The batch engine mutates all children at once, after breeding.
+        if (!this.batchMutation && (mutTarget == MutationTargetStrategy.CHILDREN || mutTarget == MutationTargetStrategy.BOTH)) {
+            if (random.nextDouble() <= config.getMutationRate()) {
+                start = this.startTimer();
+                mutate(child, random);
+                this.stopTimer(Phase.MUTATION, start, 1);
+            }
+        }
+        return child;
+    }
+
+    /**
+     * Returns copies of the {@code count} fittest individuals of the current population.
+     *
+     * @param count The number of individuals to copy.
+     * @return The copies, fittest first.
+     */
+    List<Individual> copyFittest(int count) {
+        List<Individual> ranked = new ArrayList<>(this.population.getIndividuals());
+        ranked.sort(Comparator.comparingInt(Individual::getFitness).reversed());
+
+        List<Individual> copies = new ArrayList<>(Math.min(count, ranked.size()));
+        for (Individual individual : ranked.subList(0, Math.min(count, ranked.size()))) {
+            Individual copy = new Individual(new Genome(individual.getGenomeLength()));
+            copy.copyFrom(individual);
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    /**
+     * Replaces the least fit individuals of the current population with the given migrants.
+     * <p>
+     * In arena mode the migrants are copied into the existing slots; otherwise the slots are
+     * replaced by the migrant instances, which the caller must not share with another population.
+     * </p>
+     *
+     * @param migrants The individuals to take in; at most the population size is used.
+     */
+    void acceptMigrants(List<Individual> migrants) {
+        List<Individual> individuals = this.population.getIndividuals();
+        Integer[] order = new Integer[individuals.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt(i -> individuals.get(i).getFitness()));
+
+        for (int m = 0; m < Math.min(migrants.size(), order.length); m++) {
+            int slot = order[m];
+            if (config.isArenaMode()) {
+                individuals.get(slot).copyFrom(migrants.get(m));
+            } else {
+                individuals.set(slot, migrants.get(m));
+            }
+        }
+        // Migrants were scored by their own island; this only records the new fittest and solution state.
+        this.population.updateFitness(config.getPackedSolution());
+    }
+
+    /**
+     * Returns the fittest individual of the current population.
+     *
+     * @return The fittest {@link Individual}.
+     */
+    Individual getFittest() {
+        return this.bitSliced != null ? this.bitSliced.getFittest() : this.population.getFittest();
+    }
+
+    /**
+     * Returns the individuals of the current population; copies of them when it is bit-sliced.
+     */
+    List<Individual> getIndividuals() {
+        return this.bitSliced != null ? this.bitSliced.toIndividuals() : this.population.getIndividuals();
     }
 
     /**
@@ -135,7 +1025,7 @@ public class GeneticAlgorithm {
      * @param individual2 The second parent.
      * @return A new {@link Individual} (child) resulting from the crossover.
      */
-    private Individual crossover(Individual individual1, Individual individual2) {
+    Individual crossover(Individual individual1, Individual individual2) {
         int len1 = individual1.getGenomeLength();
         int len2 = individual2.getGenomeLength();
 
@@ -146,68 +1036,104 @@ public class GeneticAlgorithm {
                     : individual2;
         }
 
+        long start = this.startTimer();
+        Genome newGenome = new Genome(Math.max(len1, len2));
+        this.crossoverInto(individual1, individual2, newGenome, this.random);
+        this.stopTimer(Phase.CROSSOVER, start, 1);
+        return new Individual(newGenome);
+    }
+
+    /**
+     * Writes the child of two parents into an empty genome.
+     * <p>
+     * Both parents must have more than one gene; shorter parents are handled by the guard
+     * clause of {@link #crossover(Individual, Individual)}.
+     * </p>
+     *
+     * @param individual1 The first parent.
+     * @param individual2 The second parent.
+     * @param newGenome The empty genome that receives the child's genes.
+     * @param random The random number generator to draw cut points and gene choices from.
+     */
+    private void crossoverInto(Individual individual1, Individual individual2, Genome newGenome, RandomGenerator random) {
         CrossoverStrategy crossoverStrategy = config.getCrossoverStrategy();
         CrossoverLeftoverStrategy leftoverStrategy = config.getCrossoverLeftoverStrategy();
 
-        List<Byte> genome1 = individual1.getGenome();
-        List<Byte> genome2 = individual2.getGenome();
+        Genome genome1 = individual1.getPackedGenome();
+        Genome genome2 = individual2.getPackedGenome();
+        int len1 = genome1.size();
+        int len2 = genome2.size();
         int minLength = Math.min(len1, len2);
 
-        List<Byte> newGenome = new ArrayList<>(minLength);
-
-        try {
-            switch (crossoverStrategy) {
-                case ONE_POINT -> {
-                    int cut = random.nextInt(minLength - 1);
-                    newGenome.addAll(genome1.subList(0, cut));
-                    newGenome.addAll(genome2.subList(cut, len2));
-                    return new Individual(newGenome);
-                }
+        switch (crossoverStrategy) {
+            case ONE_POINT -> {
+                int cut = random.nextInt(minLength - 1);
+                newGenome.append(genome1, 0, cut);
+                newGenome.append(genome2, cut, len2);
+                return;
+            }
 
-                case TWO_POINT -> {
-                    int cut1 = random.nextInt(minLength - 1) + 1; // [1, minLength - 1]
-                    int cut2 = random.nextInt(minLength - cut1) + cut1; // [cut1, minLength - 1]
-                    newGenome.addAll(genome1.subList(0, cut1));
-                    newGenome.addAll(genome2.subList(cut1, cut2));
-                    newGenome.addAll(genome1.subList(cut2, minLength));
-                    return new Individual(newGenome);
-                }
+            case TWO_POINT -> {
+                int cut1 = random.nextInt(minLength - 1) + 1; // [1, minLength - 1]
+                int cut2 = random.nextInt(minLength - cut1) + cut1; // [cut1, minLength - 1]
+                newGenome.append(genome1, 0, cut1);
+                newGenome.append(genome2, cut1, cut2);
+                newGenome.append(genome1, cut2, minLength);
+                return;
+            }
 
-                case UNIFORM -> {
-                    int pickA = minLength / 2 + (random.nextBoolean() ? minLength % 2 : 0);
-                    int pickB = minLength - pickA;
+            case UNIFORM -> {
+                // Genes are picked per 64-gene block: set bits of the mask come from the first parent.
+                switch (config.getUniformCrossoverMode()) {
+                    case BALANCED -> {
+                        int pickA = minLength / 2 + (random.nextBoolean() ? minLength % 2 : 0);
+                        int pickB = minLength - pickA;
 
-                    for (int i = 0; i < minLength; i++) {
-                        boolean chooseA = pickB == 0 || (pickA > 0 && random.nextBoolean());
-                        newGenome.add((chooseA ? genome1 : genome2).get(i));
-                        if (chooseA) pickA--; else pickB--;
+                        for (int i = 0; i < minLength; i += Genome.WORD_SIZE) {
+                            int count = Math.min(Genome.WORD_SIZE, minLength - i);
+                            long mask = 0L;
+                            for (int k = 0; k < count; k++) {
+                                boolean chooseA = pickB == 0 || (pickA > 0 && random.nextBoolean());
+                                if (chooseA) {
+                                    mask |= 1L << k;
+                                    pickA--;
+                                } else {
+                                    pickB--;
+                                }
+                            }
+                            newGenome.appendBits((genome1.bits(i) & mask) | (genome2.bits(i) & ~mask), count);
+                        }
                     }
-                }
-
-                case ARITHMETIC -> {
-                    for (int i = 0; i < minLength; i++) {
-                        newGenome.add((byte) (genome1.get(i) ^ genome2.get(i)));
+                    case WORD_MASK -> {
+                        for (int i = 0; i < minLength; i += Genome.WORD_SIZE) {
+                            long mask = random.nextLong();
+                            newGenome.appendBits((genome1.bits(i) & mask) | (genome2.bits(i) & ~mask), Math.min(Genome.WORD_SIZE, minLength - i));
+                        }
                     }
+                    default -> throw new UnsupportedOperationException(
+                            "Unknown uniform crossover mode: " + config.getUniformCrossoverMode()
+                    );
                 }
+            }
 
-                default -> throw new UnsupportedOperationException(
-                        "Unknown crossover strategy: " + crossoverStrategy
-                );
+            case ARITHMETIC -> {
+                for (int i = 0; i < minLength; i += Genome.WORD_SIZE) {
+                    newGenome.appendBits(genome1.bits(i) ^ genome2.bits(i), Math.min(Genome.WORD_SIZE, minLength - i));
+                }
             }
-        }catch (Exception e){
-            System.err.println(e.getMessage());
-            System.err.println(crossoverStrategy);
-            System.err.println(leftoverStrategy);
-            System.err.println(individual1);
-            System.err.println(individual2);
-            System.exit(-1);
-        }
 
-        // Common leftover handling (for UNIFORM and ARITHMETIC)
-        List<Byte> longer = (genome1.size() > genome2.size()) ? genome1 : genome2;
-        List<Byte> leftovers = new ArrayList<>(longer.subList(minLength, longer.size()));
+            default -> throw new UnsupportedOperationException(
+                    "Unknown crossover strategy: " + crossoverStrategy
+            );
+        }
 
-        return this.processLeftovers(leftoverStrategy, newGenome, leftovers, individual1, individual2);
+        // Common leftover handling (for UNIFORM and ARITHMETIC), read in place from the longer parent
+        Genome longer = (len1 > len2) ? genome1 : genome2;
+        if (minLength < longer.size()) {
+            long start = this.startTimer();
+            this.appendLeftovers(leftoverStrategy, newGenome, longer, minLength, individual1, individual2, random);
+            this.stopTimer(Phase.LEFTOVERS, start, 1);
+        }
     }
 
     /**
@@ -219,48 +1145,69 @@ public class GeneticAlgorithm {
      *
      * @param strategy The strategy for handling leftover genes.
      * @param newGenome The child's genome being constructed.
-     * @param leftovers The list of leftover genes from the longer parent.
+     * @param leftovers The leftover genes from the longer parent.
      * @param firstIndividual The first parent individual.
      * @param secondIndividual The second parent individual.
      * @return A new {@link Individual} with the final genome after handling leftovers.
      */
-    private Individual processLeftovers(CrossoverLeftoverStrategy strategy, List<Byte> newGenome, List<Byte> leftovers, Individual firstIndividual, Individual secondIndividual) {
-        if (leftovers.isEmpty()) {
-            return new Individual(newGenome);
+    Individual processLeftovers(CrossoverLeftoverStrategy strategy, Genome newGenome, Genome leftovers, Individual firstIndividual, Individual secondIndividual) {
+        this.appendLeftovers(strategy, newGenome, leftovers, 0, firstIndividual, secondIndividual, this.random);
+        return new Individual(newGenome);
+    }
+
+    /**
+     * Appends the leftover genes {@code [from, source.size())} of {@code source} to the child's genome,
+     * according to the leftover strategy.
+     */
+    private void appendLeftovers(CrossoverLeftoverStrategy strategy, Genome newGenome, Genome source, int from, Individual firstIndividual, Individual secondIndividual, RandomGenerator random) {
+        if (from >= source.size()) {
+            return;
         }
 
-        List<Byte> genome1 = firstIndividual.getGenome();
-        List<Byte> genome2 = secondIndividual.getGenome();
+        Genome genome1 = firstIndividual.getPackedGenome();
+        Genome genome2 = secondIndividual.getPackedGenome();
         int minLength = Math.min(genome1.size(), genome2.size());
 
         switch (strategy) {
             case KEEP_ALL_OR_NOTHING_RANDOMLY -> {
                 if (random.nextBoolean()) {
-                    newGenome.addAll(leftovers);
+                    newGenome.append(source, from, source.size());
                 }
             }
 
             case KEEP_ONE_OR_NOT_RANDOMLY -> {
-                for (byte leftover : leftovers) {
-                    if (random.nextBoolean()) {
-                        newGenome.add(leftover);
+                // The kept genes of each 64-gene block are packed together and appended at once.
+                boolean wordMask = config.getUniformCrossoverMode() == UniformCrossoverMode.WORD_MASK;
+                for (int i = from; i < source.size(); i += Genome.WORD_SIZE) {
+                    int count = Math.min(Genome.WORD_SIZE, source.size() - i);
+                    long keep = 0L;
+                    if (wordMask) {
+                        keep = random.nextLong();
+                    } else {
+                        for (int k = 0; k < count; k++) {
+                            if (random.nextBoolean()) {
+                                keep |= 1L << k;
+                            }
+                        }
                     }
+                    if (count < Genome.WORD_SIZE) {
+                        keep &= (1L << count) - 1;
+                    }
+                    newGenome.appendBits(Long.compress(source.bits(i), keep), Long.bitCount(keep));
                 }
             }
 
             case KEEP_ONLY_FROM_FITTEST_PARENT -> {
-                List<Byte> fittestGenome = (firstIndividual.getFitness() >= secondIndividual.getFitness())
+                Genome fittestGenome = (firstIndividual.getFitness() >= secondIndividual.getFitness())
                         ? genome1
                         : genome2;
-                newGenome.addAll(fittestGenome.subList(minLength, fittestGenome.size()));
+                newGenome.append(fittestGenome, minLength, fittestGenome.size());
             }
 
             default -> throw new UnsupportedOperationException(
                     "Unknown crossover leftover strategy: " + strategy
             );
         }
-
-        return new Individual(newGenome);
     }
 
     /**
@@ -274,9 +1221,32 @@ public class GeneticAlgorithm {
      * @param individual The individual to mutate.
      * @return The same individual instance, which has been modified in-place.
      */
-    private Individual mutate(Individual individual){
-        int randomGeneIndex = random.nextInt(individual.getGenomeLength());
-        Byte randomGene = (byte) random.nextInt(2);
+    Individual mutate(Individual individual){
+        return this.mutate(individual, this.random);
+    }
+
+    /**
+     * Applies a mutation to an individual's genome, drawing from the given random number generator.
+     *
+     * @param individual The individual to mutate.
+     * @param random The random number generator to draw the mutation from.
+     * @return The same individual instance, which has been modified in-place.
+     */
+    private Individual mutate(Individual individual, RandomGenerator random){
+        this.mutateAt(individual, random.nextInt(individual.getGenomeLength()), random);
+        return individual;
+    }
+
+    /**
+     * Applies a FLIP, ADD or REMOVE mutation, picked by the configured rates, at a given position.
+     * ADD appends the new gene; FLIP and REMOVE act on the gene at {@code randomGeneIndex}.
+     *
+     * @param individual The individual to mutate.
+     * @param randomGeneIndex The position of the mutation.
+     * @param random The random number generator to draw the gene and the kind of mutation from.
+     */
+    private void mutateAt(Individual individual, int randomGeneIndex, RandomGenerator random) {
+        byte randomGene = (byte) random.nextInt(2);
 
         // Pick a mutation in a roulette-like fashion
         double pick = random.nextDouble();
@@ -292,7 +1262,67 @@ public class GeneticAlgorithm {
             // FLIP mutation
             individual.setGene(randomGeneIndex, randomGene);
         }
-        return individual;
+    }
+
+    /**
+     * Mutates the individuals {@code [from, to)} of a generation with the batch engine.
+     * <p>
+     * Instead of drawing for every individual whether it mutates, the gap to the next mutation is
+     * drawn from a geometric distribution, so the cost is proportional to the number of mutations.
+     * BATCH counts gaps in individuals and mutates a random gene of each one it lands on, which
+     * gives the same distribution as PER_INDIVIDUAL. BATCH_PER_BIT counts gaps in genes over the
+     * concatenated genomes, so that every gene mutates with probability {@code mutationRate}.
+     * </p>
+     *
+     * @param individuals The generation being bred.
+     * @param from The first individual to mutate.
+     * @param to The end of the individuals to mutate, exclusive.
+     */
+    private void mutateBatch(List<Individual> individuals, int from, int to) {
+        double rate = config.getMutationRate();
+        if (rate <= 0.0) {
+            return;
+        }
+        long start = this.startTimer();
+        // log(1 - p), the scale of the geometric gaps; every position mutates when p >= 1.
+        double logSkip = rate >= 1.0 ? 0.0 : Math.log1p(-rate);
+        int mutations = 0;
+
+        if (config.getMutationEngine() == MutationEngine.BATCH_PER_BIT) {
+            long gap = nextGap(logSkip, this.random);
+            for (int j = from; j < to; j++) {
+                Individual individual = individuals.get(j);
+                // ADD and REMOVE change the length, so it is read again after every mutation.
+                while (gap < individual.getGenomeLength()) {
+                    int index = (int) gap;
+                    this.mutateAt(individual, index, this.random);
+                    mutations++;
+                    gap = index + 1 + nextGap(logSkip, this.random);
+                }
+                gap -= individual.getGenomeLength();
+            }
+        } else {
+            for (long j = from + nextGap(logSkip, this.random); j < to; j += 1 + nextGap(logSkip, this.random)) {
+                this.mutate(individuals.get((int) j), this.random);
+                mutations++;
+            }
+        }
+        this.stopTimer(Phase.MUTATION, start, mutations);
+    }
+
+    /**
+     * Draws the number of positions skipped before the next mutation, from a geometric distribution.
+     *
+     * @param logSkip The log of the probability that a position does not mutate, 0 if every position mutates.
+     * @param random The random number generator to draw from.
+     * @return The number of positions to skip, at most {@code Integer.MAX_VALUE}.
+     */
+    private static long nextGap(double logSkip, RandomGenerator random) {
+        if (logSkip == 0.0) {
+            return 0L;
+        }
+        // 1 - nextDouble() is in (0, 1], so the log is finite; the cap keeps position sums from overflowing.
+        return (long) Math.min(Math.log(1.0 - random.nextDouble()) / logSkip, Integer.MAX_VALUE);
     }
 
     /**
@@ -313,36 +1343,110 @@ public class GeneticAlgorithm {
                 return individuals.subList(0,selectionSize);
             case ROULETTE:
                 // Fitness-proportionate selection
-                List<Individual> rouletteWinners = new ArrayList<>(selectionSize);
-
-                int totalFitness = 0;
-                for (Individual i: individuals) {
-                    totalFitness += i.getFitness();
-                }
-
-                for (int i = 0; i < selectionSize; i++) {
-                    int pick = this.random.nextInt(totalFitness);
-
-                    int rouletteSum = 0;
-                    for (Individual individual : individuals) {
-                        rouletteSum += individual.getFitness();
-                        if (rouletteSum >= pick) {
-                            rouletteWinners.add(individual);
-                            break;
-                        }
-                    }
-                }
-                return rouletteWinners;
+                return spin(RouletteWheel.of(individuals), selectionSize);
             case TOURNAMENT:
-                // Select the fittest individuals from a random sample
-                int tournamentSize = config.getTournamentSize();
+                // Each winner is the fittest of a random sample of distinct individuals
+                int tournamentSize = Math.min(config.getTournamentSize(), individuals.size());
+                int[] contestants = new int[tournamentSize];
                 List<Individual> tournamentWinners = new ArrayList<>(selectionSize);
                 for (int i = 0; i < selectionSize; i++) {
-                    Collections.shuffle(individuals, random);
-                    tournamentWinners.addAll(individuals.subList(0, tournamentSize));
+                    tournamentWinners.add(tournament(individuals, contestants, this.random));
                 }
                 return tournamentWinners;
         }
         throw new UnsupportedOperationException("selectionStrategy was not ELITISM, ROULETTE or TOURNAMENT");
     }
-}
\ No newline at end of file
+
+    /**
+     * Spins a roulette wheel {@code selectionSize} times.
+     *
+     * @param wheel The wheel built over the pool of individuals.
+     * @param selectionSize The number of individuals to select.
+     * @return A new list containing the selected individuals.
+     */
+    private List<Individual> spin(RouletteWheel wheel, int selectionSize) {
+        List<Individual> rouletteWinners = new ArrayList<>(selectionSize);
+        for (int i = 0; i < selectionSize; i++) {
+            rouletteWinners.add(wheel.spin(this.random));
+        }
+        return rouletteWinners;
+    }
+
+    /**
+     * Runs a single tournament and returns its winner.
+     * <p>
+     * {@code contestants.length} distinct indices are sampled with Floyd's algorithm, so a
+     * tournament costs O(k) random draws (plus an O(k²) duplicate check on the small sample)
+     * regardless of the population size, and the caller's list is left untouched.
+     * </p>
+     *
+     * @param individuals The pool of individuals to sample from.
+     * @param contestants Scratch buffer for the sampled indices; its length is the tournament size.
+     * @param random The random number generator to sample with.
+     * @return The fittest sampled individual; ties go to the first one sampled.
+     */
+    private Individual tournament(List<Individual> individuals, int[] contestants, RandomGenerator random) {
+        int populationSize = individuals.size();
+        int tournamentSize = contestants.length;
+
+        Individual winner = null;
+        for (int sampled = 0, j = populationSize - tournamentSize; j < populationSize; sampled++, j++) {
+            int candidate = random.nextInt(j + 1);
+            for (int c = 0; c < sampled; c++) {
+                if (contestants[c] == candidate) {
+                    // Already in the tournament: j itself cannot have been drawn yet.
+                    candidate = j;
+                    break;
+                }
+            }
+            contestants[sampled] = candidate;
+
+            Individual contestant = individuals.get(candidate);
+            if (winner == null || contestant.getFitness() > winner.getFitness()) {
+                winner = contestant;
+            }
+        }
+        return winner;
+    }
+
+    /**
+     * Breeds a range of child slots, splitting it in halves until it is small enough.
+     */
+    private final class BreedingTask extends RecursiveAction {
+        private final List<Individual> survivors;
+        private final RouletteWheel parentWheel;
+        private final Individual[] children;
+        private final SplittableRandom[] slotRandoms;
+        private final int contestantCount;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        BreedingTask(List<Individual> survivors, RouletteWheel parentWheel, Individual[] children, SplittableRandom[] slotRandoms, int contestantCount, int from, int to, int chunkSize) {
+            this.survivors = survivors;
+            this.parentWheel = parentWheel;
+            this.children = children;
+            this.slotRandoms = slotRandoms;
+            this.contestantCount = contestantCount;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= this.chunkSize) {
+                int[] contestants = new int[this.contestantCount];
+                for (int j = this.from; j < this.to; j++) {
+                    this.children[j] = breedChild(this.survivors, this.parentWheel, contestants, this.children[j], this.slotRandoms[j]);
+                }
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(
+                    new BreedingTask(this.survivors, this.parentWheel, this.children, this.slotRandoms, this.contestantCount, this.from, middle, this.chunkSize),
+                    new BreedingTask(this.survivors, this.parentWheel, this.children, this.slotRandoms, this.contestantCount, middle, this.to, this.chunkSize)
+            );
+        }
+    }
+}
@@ -0,0 +1,634 @@
+package be.brw.domain;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A variable-length bitstring packed into an array of {@code long} words.
+ * <p>
+ * Gene {@code i} is stored in bit {@code i % 64} of word {@code i / 64}. Bits beyond
+ * {@link #size()} are always kept at zero, which lets equality, hashing and the fitness
+ * kernels work on whole words without masking every access.
+ * </p>
+ * <p>
+ * A {@code List<Byte>} view is available through {@link #asList()} for code that still
+ * expects the boxed representation; it reads and writes straight through to the packed words.
+ * </p>
+ * <p>
+ * The words normally live in a {@code long} array on the heap. A genome created by a
+ * {@link GenomeStore} keeps them in a fixed-size slot of off-heap memory instead; if it ever
+ * needs more room than the slot offers, it moves its genes to the heap and carries on there.
+ * </p>
+ */
+public final class Genome {
+
+    /**
+     * Number of bits stored in a single word.
+     */
+    static final int WORD_SIZE = 64;
+    /**
+     * Shift that converts a bit index into a word index.
+     */
+    static final int ADDRESS_BITS = 6;
+    /**
+     * Shared backing array for genomes created without any capacity.
+     */
+    private static final long[] EMPTY = new long[0];
+
+    /**
+     * The packed genes. Only the first {@code wordCount(length)} words are meaningful.
+     * {@code null} while the genes are kept in {@link #slot}.
+     */
+    private long[] words;
+    /**
+     * The off-heap slot holding the packed genes, or {@code null} if they are kept in {@link #words}.
+     */
+    private LongBuffer slot;
+    /**
+     * The number of genes in this genome.
+     */
+    private int length;
+
+    /**
+     * Constructs an empty genome able to hold {@code capacity} genes before growing.
+     *
+     * @param capacity The initial capacity in genes.
+     */
+    public Genome(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Genome capacity cannot be negative: " + capacity);
+        }
+        this.words = capacity == 0 ? EMPTY : new long[wordCount(capacity)];
+        this.length = 0;
+    }
+
+    /**
+     * Constructs an empty genome.
+     */
+    public Genome() {
+        this(0);
+    }
+
+    private Genome(long[] words, int length) {
+        this.words = words;
+        this.length = length;
+    }
+
+    /**
+     * Constructs an empty genome stored in an off-heap slot, see {@link GenomeStore}.
+     *
+     * @param slot The zeroed slot; its capacity in words bounds the genes it can hold.
+     */
+    Genome(LongBuffer slot) {
+        this.slot = slot;
+        this.length = 0;
+    }
+
+    /**
+     * Creates a packed genome from a boxed list of genes.
+     *
+     * @param genes The genes, each either 0 or 1.
+     * @return A new genome holding the same genes.
+     */
+    public static Genome fromList(List<Byte> genes) {
+        Genome genome = new Genome(genes.size());
+        for (Byte gene : genes) {
+            genome.add(gene);
+        }
+        return genome;
+    }
+
+    /**
+     * Creates a packed genome from an array of genes.
+     *
+     * @param genes The genes, each either 0 or 1.
+     * @return A new genome holding the same genes.
+     */
+    public static Genome fromBytes(byte[] genes) {
+        Genome genome = new Genome(genes.length);
+        for (byte gene : genes) {
+            genome.add(gene);
+        }
+        return genome;
+    }
+
+    /**
+     * Returns the number of words needed to store {@code bits} genes.
+     */
+    static int wordCount(int bits) {
+        return (bits + WORD_SIZE - 1) >>> ADDRESS_BITS;
+    }
+
+    /**
+     * Returns the number of genes in this genome.
+     *
+     * @return The genome length.
+     */
+    public int size() {
+        return this.length;
+    }
+
+    /**
+     * Returns whether this genome holds no genes.
+     *
+     * @return {@code true} if the genome is empty.
+     */
+    public boolean isEmpty() {
+        return this.length == 0;
+    }
+
+    /**
+     * Returns the gene at the given position.
+     *
+     * @param index The position of the gene.
+     * @return The gene, either 0 or 1.
+     */
+    public byte get(int index) {
+        Genome.checkIndex(index, this.length);
+        return (byte) ((this.word(index >>> ADDRESS_BITS) >>> index) & 1L);
+    }
+
+    /**
+     * Updates the gene at the given position.
+     *
+     * @param index The position of the gene.
+     * @param gene The new gene value; any non-zero value is stored as 1.
+     * @return The previous gene at that position.
+     */
+    public byte set(int index, byte gene) {
+        Genome.checkIndex(index, this.length);
+        int wordIndex = index >>> ADDRESS_BITS;
+        long mask = 1L << index;
+        long word = this.word(wordIndex);
+        byte previous = (byte) ((word & mask) != 0 ? 1 : 0);
+        this.setWord(wordIndex, gene != 0 ? word | mask : word & ~mask);
+        return previous;
+    }
+
+    /**
+     * Appends a gene to the end of the genome.
+     *
+     * @param gene The gene to append; any non-zero value is stored as 1.
+     */
+    public void add(byte gene) {
+        this.ensureCapacity(this.length + 1);
+        if (gene != 0) {
+            int wordIndex = this.length >>> ADDRESS_BITS;
+            this.setWord(wordIndex, this.word(wordIndex) | 1L << this.length);
+        }
+        this.length++;
+    }
+
+    /**
+     * Removes the gene at the given position, shifting all later genes one position down.
+     *
+     * @param index The position of the gene to remove.
+     * @return The removed gene.
+     */
+    public byte remove(int index) {
+        byte removed = this.get(index);
+        int wordIndex = index >>> ADDRESS_BITS;
+        int lastWord = (this.length - 1) >>> ADDRESS_BITS;
+
+        // Keep the bits below the index in place and shift the ones above it down by one.
+        long lowMask = (1L << index) - 1;
+        long word = this.word(wordIndex);
+        word = (word & lowMask) | ((word >>> 1) & ~lowMask);
+        for (int i = wordIndex; i < lastWord; i++) {
+            // Pull the lowest bit of the next word into the top of this one.
+            long next = this.word(i + 1);
+            this.setWord(i, word | (next << (WORD_SIZE - 1)));
+            word = next >>> 1;
+        }
+        this.setWord(lastWord, word);
+
+        this.length--;
+        return removed;
+    }
+
+    /**
+     * Removes every gene from this genome while keeping its capacity.
+     */
+    public void clear() {
+        this.fillWords(0, wordCount(this.length));
+        this.length = 0;
+    }
+
+    /**
+     * Appends the genes {@code [from, to)} of another genome to the end of this one.
+     *
+     * @param source The genome to copy genes from.
+     * @param from The first position to copy (inclusive).
+     * @param to The last position to copy (exclusive).
+     */
+    public void append(Genome source, int from, int to) {
+        Genome.checkRange(from, to, source.length);
+        this.ensureCapacity(this.length + (to - from));
+        // Copy up to 64 genes at a time, shifted from the source's alignment to this genome's.
+        for (int i = from; i < to; i += WORD_SIZE) {
+            this.appendBits(source.bits(i), Math.min(WORD_SIZE, to - i));
+        }
+    }
+
+    /**
+     * Returns the 64 genes starting at position {@code from}: gene {@code from + k} is bit {@code k}.
+     * Positions past the end of the genome read as 0.
+     *
+     * @param from The first position to read; must not be negative.
+     * @return The genes, packed in a word.
+     */
+    long bits(int from) {
+        int wordIndex = from >>> ADDRESS_BITS;
+        int capacity = this.capacityWords();
+        if (wordIndex >= capacity) {
+            return 0L;
+        }
+        long bits = this.word(wordIndex) >>> from;
+        int shift = from & (WORD_SIZE - 1);
+        if (shift != 0 && wordIndex + 1 < capacity) {
+            bits |= this.word(wordIndex + 1) << (WORD_SIZE - shift);
+        }
+        return bits;
+    }
+
+    /**
+     * Appends the {@code count} lowest bits of a word as genes; the higher bits are ignored.
+     *
+     * @param bits The genes to append, gene {@code k} in bit {@code k}.
+     * @param count The number of genes to append, at most 64.
+     */
+    void appendBits(long bits, int count) {
+        if (count <= 0) {
+            return;
+        }
+        if (count < WORD_SIZE) {
+            bits &= (1L << count) - 1;
+        }
+        this.ensureCapacity(this.length + count);
+        int wordIndex = this.length >>> ADDRESS_BITS;
+        int shift = this.length & (WORD_SIZE - 1);
+        this.setWord(wordIndex, this.word(wordIndex) | bits << shift);
+        if (shift + count > WORD_SIZE) {
+            this.setWord(wordIndex + 1, this.word(wordIndex + 1) | bits >>> (WORD_SIZE - shift));
+        }
+        this.length += count;
+    }
+
+    /**
+     * Returns a new genome holding a copy of the genes {@code [from, to)}.
+     *
+     * @param from The first position to copy (inclusive).
+     * @param to The last position to copy (exclusive).
+     * @return A new, independent genome.
+     */
+    public Genome subGenome(int from, int to) {
+        Genome copy = new Genome(to - from);
+        copy.append(this, from, to);
+        return copy;
+    }
+
+    /**
+     * Replaces the genes of this genome with those of another, reusing this genome's storage.
+     *
+     * @param source The genome to copy.
+     */
+    public void copyFrom(Genome source) {
+        int count = wordCount(source.length);
+        int previousCount = wordCount(this.length);
+        this.ensureCapacity(source.length);
+        if (this.words != null && source.words != null) {
+            System.arraycopy(source.words, 0, this.words, 0, count);
+        } else if (this.words != null) {
+            source.slot.get(0, this.words, 0, count);
+        } else if (source.words != null) {
+            this.slot.put(0, source.words, 0, count);
+        } else {
+            this.slot.put(0, source.slot, 0, count);
+        }
+        if (previousCount > count) {
+            this.fillWords(count, previousCount);
+        }
+        this.length = source.length;
+    }
+
+    /**
+     * Returns an independent copy of this genome.
+     *
+     * @return A new genome with the same genes.
+     */
+    public Genome copy() {
+        return new Genome(this.copyWords(), this.length);
+    }
+
+    /**
+     * Counts the positions at which this genome and another hold the same gene.
+     * <p>
+     * Only the first {@code min(size(), other.size())} positions are compared, a whole word at
+     * a time, by the best available {@link MatchKernel}; padding bits and the longer genome's
+     * extra genes never count as matches.
+     * </p>
+     *
+     * @param other The genome to compare against.
+     * @return The number of matching positions.
+     */
+    public int countMatches(Genome other) {
+        int length = Math.min(this.length, other.length);
+        if (this.words != null && other.words != null) {
+            return MatchKernel.BEST.countMatches(this.words, other.words, length);
+        }
+        // Off-heap words are read one at a time, the same way as the scalar kernel.
+        int fullWords = length >>> ADDRESS_BITS;
+        int matches = 0;
+        for (int i = 0; i < fullWords; i++) {
+            matches += Long.bitCount(~(this.word(i) ^ other.word(i)));
+        }
+        int tailBits = length & (WORD_SIZE - 1);
+        if (tailBits != 0) {
+            matches += Long.bitCount(~(this.word(fullWords) ^ other.word(fullWords)) & ((1L << tailBits) - 1));
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the packed words backing this genome.
+     * <p>
+     * Note: This is the internal array. Only the first {@code wordCount(size())} words are
+     * meaningful, and callers must not modify it. A genome stored off-heap returns a copy of
+     * its meaningful words instead.
+     * </p>
+     */
+    long[] words() {
+        return this.words != null ? this.words : this.copyWords();
+    }
+
+    /**
+     * Returns whether the genes are kept in an off-heap slot, so that {@link #words()} has to copy them.
+     */
+    boolean isOffHeap() {
+        return this.slot != null;
+    }
+
+    /**
+     * Copies the meaningful words of this genome into {@code target}, or into a new array if it is too short.
+     *
+     * @param target The array to reuse, or {@code null}.
+     * @return The array holding the copy.
+     */
+    long[] copyWords(long[] target) {
+        int count = wordCount(this.length);
+        if (target == null || target.length < count) {
+            target = new long[count];
+        }
+        if (this.words != null) {
+            System.arraycopy(this.words, 0, target, 0, count);
+        } else {
+            this.slot.get(0, target, 0, count);
+        }
+        return target;
+    }
+
+    /**
+     * Writes the meaningful words of this genome to a buffer in one bulk copy, advancing its position.
+     *
+     * @param target The buffer to write to, with room for {@code wordCount(size())} words.
+     */
+    void writeWords(ByteBuffer target) {
+        int count = wordCount(this.length);
+        LongBuffer view = target.asLongBuffer();
+        if (this.words != null) {
+            view.put(this.words, 0, count);
+        } else {
+            view.put(0, this.slot, 0, count);
+        }
+        target.position(target.position() + count * Long.BYTES);
+    }
+
+    /**
+     * Replaces the genes of this genome with {@code length} genes read from a buffer, as written
+     * by {@link #writeWords(ByteBuffer)}, advancing its position.
+     *
+     * @param source The buffer to read from.
+     * @param length The number of genes to read.
+     */
+    void readWords(ByteBuffer source, int length) {
+        this.clear();
+        this.ensureCapacity(length);
+        int count = wordCount(length);
+        LongBuffer view = source.asLongBuffer();
+        if (this.words != null) {
+            view.get(this.words, 0, count);
+        } else {
+            this.slot.put(0, view, 0, count);
+        }
+        source.position(source.position() + count * Long.BYTES);
+        int tailBits = length & (WORD_SIZE - 1);
+        if (tailBits != 0) {
+            // Keep the padding bits at zero, whatever the buffer held.
+            this.setWord(count - 1, this.word(count - 1) & ((1L << tailBits) - 1));
+        }
+        this.length = length;
+    }
+
+    /**
+     * Returns the packed word at index {@code i}, genes {@code 64 * i} to {@code 64 * i + 63}.
+     *
+     * @param i The word index, below the capacity of this genome.
+     * @return The word; bits beyond {@link #size()} are 0.
+     */
+    long word(int i) {
+        return this.words != null ? this.words[i] : this.slot.get(i);
+    }
+
+    /**
+     * Returns a boxed {@code List<Byte>} view of this genome.
+     * <p>
+     * The view is backed by this genome: {@code set}, {@code add} and {@code remove} on the
+     * list update the packed words directly.
+     * </p>
+     *
+     * @return A list view of the genes.
+     */
+    public List<Byte> asList() {
+        return new ListView();
+    }
+
+    private void setWord(int i, long word) {
+        if (this.words != null) {
+            this.words[i] = word;
+        } else {
+            this.slot.put(i, word);
+        }
+    }
+
+    private int capacityWords() {
+        return this.words != null ? this.words.length : this.slot.capacity();
+    }
+
+    private void fillWords(int from, int to) {
+        if (this.words != null) {
+            Arrays.fill(this.words, from, to, 0L);
+        } else {
+            for (int i = from; i < to; i++) {
+                this.slot.put(i, 0L);
+            }
+        }
+    }
+
+    private long[] copyWords() {
+        int count = wordCount(this.length);
+        if (this.words != null) {
+            return Arrays.copyOf(this.words, count);
+        }
+        long[] copy = new long[count];
+        this.slot.get(0, copy, 0, count);
+        return copy;
+    }
+
+    private void ensureCapacity(int bits) {
+        int required = wordCount(bits);
+        int capacity = this.capacityWords();
+        if (required <= capacity) {
+            return;
+        }
+        long[] grown = new long[Math.max(required, capacity * 2)];
+        if (this.words != null) {
+            System.arraycopy(this.words, 0, grown, 0, capacity);
+        } else {
+            // The slot is too small: the genes move to the heap for good.
+            this.slot.get(0, grown, 0, capacity);
+            this.slot = null;
+        }
+        this.words = grown;
+    }
+
+    private static void checkIndex(int index, int length) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length);
+        }
+    }
+
+    private static void checkRange(int from, int to, int length) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException("Range: [" + from + ", " + to + "), Size: " + length);
+        }
+    }
+
+    /**
+     * Two genomes are equal when they have the same length and the same genes.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Genome other)) return false;
+        if (this.length != other.length) return false;
+        int count = wordCount(this.length);
+        if (this.words != null && other.words != null) {
+            return Arrays.equals(this.words, 0, count, other.words, 0, count);
+        }
+        for (int i = 0; i < count; i++) {
+            if (this.word(i) != other.word(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = this.length;
+        for (int i = 0, count = wordCount(this.length); i < count; i++) {
+            hash = 31 * hash + Long.hashCode(this.word(i));
+        }
+        return hash;
+    }
+
+    /**
+     * Returns a 64-bit hash of the length and genes, mixed well enough that different genomes
+     * practically never collide, so that genomes can be told apart without keeping them.
+     *
+     * @return The fingerprint; equal genomes have equal fingerprints.
+     */
+    long fingerprint() {
+        long hash = mix(this.length);
+        for (int i = 0, count = wordCount(this.length); i < count; i++) {
+            hash = mix(hash ^ this.word(i));
+        }
+        return hash;
+    }
+
+    /**
+     * Scrambles the bits of {@code z} with the SplitMix64 finalizer, a bijection on 64-bit values.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns the genes formatted like a {@code List<Byte>}, e.g. {@code [0, 1, 1]}.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(this.length * 3 + 2).append('[');
+        for (int i = 0; i < this.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(this.get(i));
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Boxed list view over the packed genes.
+     */
+    private final class ListView extends AbstractList<Byte> implements RandomAccess {
+
+        @Override
+        public Byte get(int index) {
+            return Genome.this.get(index);
+        }
+
+        @Override
+        public Byte set(int index, Byte gene) {
+            return Genome.this.set(index, gene);
+        }
+
+        @Override
+        public boolean add(Byte gene) {
+            Genome.this.add(gene);
+            this.modCount++;
+            return true;
+        }
+
+        @Override
+        public void add(int index, Byte gene) {
+            if (index != Genome.this.length) {
+                throw new UnsupportedOperationException("Genes can only be appended to a genome");
+            }
+            this.add(gene);
+        }
+
+        @Override
+        public Byte remove(int index) {
+            this.modCount++;
+            return Genome.this.remove(index);
+        }
+
+        @Override
+        public void clear() {
+            this.modCount++;
+            Genome.this.clear();
+        }
+
+        @Override
+        public int size() {
+            return Genome.this.length;
+        }
+    }
+}
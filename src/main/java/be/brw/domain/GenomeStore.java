@@ -0,0 +1,84 @@
+package be.brw.domain;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * Off-heap storage for a fixed number of genomes, in fixed-stride slots of packed words.
+ * <p>
+ * Slot {@code i} holds the words of genome {@code i} right after those of genome {@code i - 1},
+ * so a pass over the population reads memory sequentially. The slots are carved out of direct
+ * buffers of at most 1 GiB each, so a store is not limited by the 2 GiB size of a single buffer
+ * and, unlike a {@code long} array per genome, its size does not count towards the Java heap.
+ * </p>
+ * <p>
+ * The memory is released when the store and every genome created from it are no longer reachable.
+ * Direct memory is capped by {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap size.
+ * </p>
+ */
+final class GenomeStore {
+
+    /**
+     * The largest direct buffer allocated at once, in bytes.
+     */
+    private static final int MAX_CHUNK_BYTES = 1 << 30;
+
+    /**
+     * The buffers the slots are carved out of, each holding {@link #slotsPerChunk} slots.
+     */
+    private final LongBuffer[] chunks;
+    /**
+     * The number of words in a slot.
+     */
+    private final int slotWords;
+    /**
+     * The number of slots in a full chunk.
+     */
+    private final int slotsPerChunk;
+    /**
+     * The number of slots.
+     */
+    private final int slots;
+
+    /**
+     * Allocates a zeroed store.
+     *
+     * @param slots The number of genomes to store.
+     * @param genomeCapacity The number of genes every slot can hold.
+     */
+    GenomeStore(int slots, int genomeCapacity) {
+        if (slots < 0 || genomeCapacity < 0) {
+            throw new IllegalArgumentException("Genome store size cannot be negative: " + slots + " slots of " + genomeCapacity + " genes");
+        }
+        this.slots = slots;
+        this.slotWords = Math.max(1, Genome.wordCount(genomeCapacity));
+        this.slotsPerChunk = Math.max(1, MAX_CHUNK_BYTES / (this.slotWords * Long.BYTES));
+
+        int chunkCount = (slots + this.slotsPerChunk - 1) / this.slotsPerChunk;
+        this.chunks = new LongBuffer[chunkCount];
+        for (int c = 0; c < chunkCount; c++) {
+            int chunkSlots = Math.min(this.slotsPerChunk, slots - c * this.slotsPerChunk);
+            this.chunks[c] = ByteBuffer.allocateDirect(Math.multiplyExact(chunkSlots * Long.BYTES, this.slotWords))
+                    .order(ByteOrder.nativeOrder())
+                    .asLongBuffer();
+        }
+    }
+
+    /**
+     * Creates an empty genome backed by a slot of this store.
+     * <p>
+     * Every slot must back at most one genome at a time.
+     * </p>
+     *
+     * @param slot The index of the slot.
+     * @return A genome that keeps its genes in the slot until it outgrows it.
+     */
+    Genome genome(int slot) {
+        if (slot < 0 || slot >= this.slots) {
+            throw new IndexOutOfBoundsException("Slot: " + slot + ", Slots: " + this.slots);
+        }
+        LongBuffer chunk = this.chunks[slot / this.slotsPerChunk];
+        return new Genome(chunk.slice((slot % this.slotsPerChunk) * this.slotWords, this.slotWords));
+    }
+}
@@ -1,45 +1,95 @@
 package be.brw.domain;
 
+import java.util.AbstractList;
 import java.util.List;
+import java.util.RandomAccess;
+
 /**
  * Represents a single individual in a genetic algorithm population.
  * <p>
- * An individual is defined by its {@code genome}, which is a list of bytes (genes),
+ * An individual is defined by its {@code genome}, a packed bitstring of genes (see {@link Genome}),
  * and its {@code fitness}, an integer score indicating how well it solves the problem.
  * This class is comparable, allowing individuals to be sorted based on their fitness
  * in descending order (higher fitness is better).
  * </p>
+ * <p>
+ * Once scored, an individual remembers how many of its genes match the solution. Flipping or
+ * appending a gene adjusts that count in O(1); only edits that shift genes around, such as
+ * removing a gene before the end, mark the individual dirty so that it is rescanned in full.
+ * Individuals whose genome has not changed at all since they were scored keep their fitness
+ * and are skipped by the next evaluation.
+ * </p>
  */
 public class Individual implements Comparable<Individual>{
 
     /**
-     * The genetic makeup of the individual, represented as a list of bytes.
+     * The genetic makeup of the individual, packed into a bitstring.
      */
-    private final List<Byte> genome;
+    private final Genome genome;
+    /**
+     * Boxed view over {@link #genome}, kept for code that still works with {@code List<Byte>}.
+     */
+    private final List<Byte> genomeView;
     /**
      * The fitness score of the individual. A higher value indicates a better solution.
      */
     private int fitness;
+    /**
+     * The solution {@link #matchCount} was counted against, or {@code null} when the individual is
+     * dirty and its genome has to be rescanned.
+     */
+    private Genome matchedSolution;
+    /**
+     * The number of genes matching {@link #matchedSolution}, kept up to date by the gene edit methods,
+     * or -1 if the fitness was evaluated without counting matches.
+     */
+    private int matchCount;
+    /**
+     * Whether {@link #fitness} was computed by an evaluation against {@link #matchedSolution} and the
+     * genome has not changed since.
+     */
+    private boolean evaluated;
+
+    /**
+     * Constructs a new Individual that takes ownership of a packed genome.
+     *
+     * @param genome The packed genome of the individual.
+     * @param fitness The initial fitness score of the individual.
+     */
+    public Individual(Genome genome, int fitness) {
+        this.genome = genome;
+        this.genomeView = new GenomeView();
+        this.fitness = fitness;
+    }
+
+    /**
+     * Constructs a new Individual that takes ownership of a packed genome, with a default fitness of 0.
+     *
+     * @param genome The packed genome of the individual.
+     */
+    public Individual(Genome genome) {
+        this(genome, 0);
+    }
 
     /**
      * Constructs a new Individual with a specified genome and fitness.
+     * The genes are copied into a packed {@link Genome}.
      *
      * @param genome The list of bytes representing the individual's genome.
      * @param fitness The initial fitness score of the individual.
      */
     public Individual(List<Byte> genome, int fitness) {
-        this.genome = genome;
-        this.fitness = fitness;
+        this(Genome.fromList(genome), fitness);
     }
 
     /**
      * Constructs a new Individual with a specified genome and a default fitness of 0.
+     * The genes are copied into a packed {@link Genome}.
      *
      * @param genome The list of bytes representing the individual's genome.
      */
     public Individual(List<Byte> genome){
-        this.genome = genome;
-        this.fitness = 0;
+        this(Genome.fromList(genome), 0);
     }
 
     /**
@@ -49,6 +99,8 @@ public class Individual implements Comparable<Individual>{
      */
     public void setFitness(int fitness) {
         this.fitness = fitness;
+        // A fitness set from outside is overwritten by the next evaluation.
+        this.evaluated = false;
     }
 
     /**
@@ -61,15 +113,30 @@ public class Individual implements Comparable<Individual>{
     }
 
     /**
-     * Returns the genome of this individual.
+     * Returns the genome of this individual as a boxed list.
      * <p>
-     * Note: This method returns a direct reference to the internal list.
-     * Modifications to the returned list will affect the individual's state.
+     * Note: This method returns a view backed by the internal packed genome.
+     * Modifications to the returned list will affect the individual's state, and go through
+     * the same fitness tracking as {@link #setGene}, {@link #addGene} and {@link #removeGene}.
      * </p>
      *
      * @return The list of bytes representing the genome.
      */
     public List<Byte> getGenome() {
+        return this.genomeView;
+    }
+
+    /**
+     * Returns the packed genome of this individual.
+     * <p>
+     * Note: This method returns a direct reference to the internal genome.
+     * Modifications to the returned genome will affect the individual's state, but bypass
+     * fitness tracking; call {@link #markDirty()} after modifying it.
+     * </p>
+     *
+     * @return The packed genome.
+     */
+    public Genome getPackedGenome() {
         return this.genome;
     }
 
@@ -84,30 +151,171 @@ public class Individual implements Comparable<Individual>{
 
     /**
      * Updates a gene at a specific position in the genome.
+     * The tracked match count changes by at most one, so no rescan is needed.
      *
      * @param index The position of the gene to set.
      * @param gene The new gene value.
      */
-    public void setGene(int index, Byte gene){
-        genome.set(index, gene);
+    public void setGene(int index, byte gene){
+        byte previous = genome.set(index, gene);
+        byte current = genome.get(index);
+        if (previous != current) {
+            evaluated = false;
+            if (this.tracksMatches() && index < matchedSolution.size()) {
+                matchCount += (current == matchedSolution.get(index)) ? 1 : -1;
+            }
+        }
     }
 
     /**
      * Appends a gene to the end of the individual's genome.
+     * Only the new position can add a match, so no rescan is needed.
      *
      * @param gene The gene to add.
      */
-    public void addGene(Byte gene){
+    public void addGene(byte gene){
+        int index = genome.size();
         genome.add(gene);
+        evaluated = false;
+        if (this.tracksMatches() && index < matchedSolution.size() && genome.get(index) == matchedSolution.get(index)) {
+            matchCount++;
+        }
     }
 
     /**
      * Removes a gene from a specific position in the genome.
+     * Removing anything but the last gene shifts every later gene, which marks the individual dirty.
      *
      * @param index The index of the gene to remove.
      */
     public void removeGene(int index){
+        if (this.tracksMatches() && index == genome.size() - 1) {
+            if (index < matchedSolution.size() && genome.get(index) == matchedSolution.get(index)) {
+                matchCount--;
+            }
+        } else {
+            markDirty();
+        }
         genome.remove(index);
+        evaluated = false;
+    }
+
+    /**
+     * Turns this individual into a copy of another one, reusing this individual's genome storage.
+     * The fitness and tracked match count are copied along with the genes.
+     *
+     * @param other The individual to copy.
+     */
+    public void copyFrom(Individual other) {
+        this.genome.copyFrom(other.genome);
+        this.fitness = other.fitness;
+        this.matchedSolution = other.matchedSolution;
+        this.matchCount = other.matchCount;
+        this.evaluated = other.evaluated;
+    }
+
+    /**
+     * Forgets the tracked match count, so that the next evaluation rescans the whole genome.
+     */
+    public void markDirty() {
+        this.matchedSolution = null;
+        this.evaluated = false;
+    }
+
+    /**
+     * Returns whether the genome has to be rescanned before its fitness can be computed.
+     *
+     * @return {@code true} if no up-to-date match count is known.
+     */
+    public boolean isDirty() {
+        return !this.tracksMatches();
+    }
+
+    private boolean tracksMatches() {
+        return this.matchedSolution != null && this.matchCount >= 0;
+    }
+
+    /**
+     * Returns the tracked number of genes matching the given solution.
+     *
+     * @param solution The solution the count should refer to.
+     * @return The match count, or -1 if the individual is dirty or was matched against another solution.
+     */
+    int getMatchCount(Genome solution) {
+        return this.matchedSolution == solution ? this.matchCount : -1;
+    }
+
+    /**
+     * Records a freshly counted number of genes matching the given solution, clearing the dirty state.
+     *
+     * @param solution The solution the genome was compared against.
+     * @param matchCount The number of matching genes.
+     */
+    void setMatchCount(Genome solution, int matchCount) {
+        this.matchedSolution = solution;
+        this.matchCount = matchCount;
+    }
+
+    /**
+     * Returns whether the genome equals the solution. An up-to-date match count against the same
+     * solution answers in constant time; otherwise the genomes are compared.
+     *
+     * @param solution The solution to compare against.
+     * @return {@code true} if every gene matches and the lengths are equal.
+     */
+    boolean matchesSolution(Genome solution) {
+        if (this.genome.size() != solution.size()) {
+            return false;
+        }
+        int matches = this.getMatchCount(solution);
+        return matches >= 0 ? matches == solution.size() : this.genome.equals(solution);
+    }
+
+    /**
+     * Returns whether the fitness was evaluated against the given solution and the genome is unchanged since.
+     *
+     * @param solution The solution of the current evaluation.
+     * @return {@code true} if the individual does not need to be scored again.
+     */
+    boolean isEvaluated(Genome solution) {
+        return this.evaluated && this.matchedSolution == solution;
+    }
+
+    /**
+     * Stores the fitness computed by an evaluation against the solution of the current match count.
+     *
+     * @param fitness The evaluated fitness.
+     */
+    void setEvaluatedFitness(int fitness) {
+        this.fitness = fitness;
+        this.evaluated = true;
+    }
+
+    /**
+     * Stores a fitness evaluated against the given solution without counting matches, as done
+     * for a custom {@link FitnessFunction}. The individual is skipped by evaluations against the
+     * same solution until its genome changes.
+     *
+     * @param solution The solution of the current evaluation.
+     * @param fitness The evaluated fitness.
+     */
+    void setEvaluatedFitness(Genome solution, int fitness) {
+        this.matchedSolution = solution;
+        this.matchCount = -1;
+        this.setEvaluatedFitness(fitness);
+    }
+
+    /**
+     * Takes over the evaluation of an individual with the same genome, as if this one had been
+     * scored as well. The tracked match count is shared too, so later gene edits keep updating it.
+     *
+     * @param other An individual whose genome equals this one's.
+     */
+    void shareEvaluation(Individual other) {
+        this.fitness = other.fitness;
+        this.matchedSolution = other.matchedSolution;
+        this.matchCount = other.matchCount;
+        this.evaluated = other.evaluated;
     }
 
     /**
@@ -122,7 +330,7 @@ public class Individual implements Comparable<Individual>{
      */
     @Override
     public int compareTo(Individual other) {
-        return other.fitness - this.fitness;
+        return Integer.compare(other.fitness, this.fitness);
     }
 
     /**
@@ -137,4 +345,44 @@ public class Individual implements Comparable<Individual>{
                 ", fitness=" + fitness +
                 '}';
     }
+
+    /**
+     * Boxed list view whose modifications go through the individual's gene edit methods.
+     */
+    private final class GenomeView extends AbstractList<Byte> implements RandomAccess {
+
+        @Override
+        public Byte get(int index) {
+            return genome.get(index);
+        }
+
+        @Override
+        public Byte set(int index, Byte gene) {
+            byte previous = genome.get(index);
+            setGene(index, gene);
+            return previous;
+        }
+
+        @Override
+        public void add(int index, Byte gene) {
+            if (index != genome.size()) {
+                throw new UnsupportedOperationException("Genes can only be appended to a genome");
+            }
+            addGene(gene);
+            this.modCount++;
+        }
+
+        @Override
+        public Byte remove(int index) {
+            byte removed = genome.get(index);
+            removeGene(index);
+            this.modCount++;
+            return removed;
+        }
+
+        @Override
+        public int size() {
+            return genome.size();
+        }
+    }
 }
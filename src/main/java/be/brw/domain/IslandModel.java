@@ -0,0 +1,274 @@
+package be.brw.domain;
+
+import be.brw.config.GAConfig;
+import be.brw.domain.strategy.MigrationTopology;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * Evolves several independent populations ("islands") in parallel, with periodic migration.
+ * <p>
+ * Each island is a {@link GeneticAlgorithm} with its own population and its own random seed,
+ * derived from the configured seed. All islands evolve {@code migrationInterval} generations in
+ * parallel; then each island sends copies of its {@code migrationSize} fittest individuals to
+ * other islands according to the {@link MigrationTopology}, where they replace the least fit
+ * individuals. Islands only meet at these migration points, so a given seed always gives the
+ * same result, however the threads are scheduled.
+ * </p>
+ */
+public class IslandModel {
+
+    /**
+     * Configuration of the whole model; each island gets a copy with its own seed and size.
+     */
+    private final GAConfig config;
+    /**
+     * The islands, each evolving its own population.
+     */
+    private final List<GeneticAlgorithm> islands;
+    /**
+     * Random number generator used to pick destinations for the RANDOM topology.
+     */
+    private final SplittableRandom migrationRandom;
+    /**
+     * The number of generations evolved by every island so far.
+     */
+    private int generationCount;
+    /**
+     * Set by {@link #requestStop()}; checked after every epoch.
+     */
+    private volatile boolean stopRequested;
+
+    /**
+     * Constructs the islands and their initial populations.
+     *
+     * @param config The configuration, with an island count of at least 2.
+     */
+    public IslandModel(GAConfig config) {
+        this.config = config;
+        SplittableRandom seeds = new SplittableRandom(config.getSeed());
+        this.islands = new ArrayList<>(config.getIslandCount());
+        for (int i = 0; i < config.getIslandCount(); i++) {
+            this.islands.add(new GeneticAlgorithm(config.forIsland(seeds.nextInt(), config.getIslandSize())));
+        }
+        this.migrationRandom = seeds.split();
+        this.generationCount = 0;
+    }
+
+    /**
+     * Gets the current generation count.
+     *
+     * @return The number of generations evolved, or the generation the solution was found in.
+     */
+    public int getGenerationCount() {
+        return this.generationCount;
+    }
+
+    /**
+     * Gets the per-phase timers and counters of every island, summed.
+     *
+     * @return The combined profile, or {@code null} if instrumentation is disabled.
+     */
+    public GenerationProfile getProfile() {
+        GenerationProfile combined = null;
+        for (GeneticAlgorithm island : this.islands) {
+            GenerationProfile profile = island.getProfile();
+            if (profile != null) {
+                if (combined == null) {
+                    combined = new GenerationProfile();
+                }
+                combined.add(profile);
+            }
+        }
+        return combined;
+    }
+
+    /**
+     * Gets the fittest individual any island has found so far.
+     *
+     * @return The best individual so far, or {@code null} if no island has evolved yet.
+     */
+    public Individual getBestSoFar() {
+        Individual best = null;
+        for (GeneticAlgorithm island : this.islands) {
+            Individual candidate = island.getBestSoFar();
+            if (candidate != null && (best == null || candidate.getFitness() > best.getFitness())) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the individuals of every island, for a snapshot taken between epochs.
+     */
+    List<List<Individual>> populations() {
+        List<List<Individual>> populations = new ArrayList<>(this.islands.size());
+        for (GeneticAlgorithm island : this.islands) {
+            populations.add(island.getIndividuals());
+        }
+        return populations;
+    }
+
+    /**
+     * Asks every island to stop; the run ends after the current epoch. Can be called from any thread.
+     */
+    public void requestStop() {
+        this.stopRequested = true;
+        for (GeneticAlgorithm island : this.islands) {
+            island.requestStop();
+        }
+    }
+
+    /**
+     * Evolves all islands until one of them finds a perfect solution or the maximum number of
+     * generations is reached.
+     *
+     * @return The perfect solution, or the fittest individual over all islands.
+     */
+    public Individual run() {
+        return this.run(generation -> {});
+    }
+
+    /**
+     * Evolves all islands until one of them finds a perfect solution, the maximum number of
+     * generations is reached, or a stop is requested.
+     *
+     * @param afterEpoch Called with the generation reached after every epoch that did not find a solution, before migration.
+     * @return The perfect solution, or the fittest individual over all islands.
+     */
+    public Individual run(IntConsumer afterEpoch) {
+        int maxGeneration = config.getMaxGeneration();
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(this.islands.size(), Runtime.getRuntime().availableProcessors())
+        );
+        try {
+            while (true) {
+                int target = Math.min(this.generationCount + config.getMigrationInterval(), maxGeneration);
+
+                List<Future<Boolean>> epoch = new ArrayList<>(this.islands.size());
+                for (GeneticAlgorithm island : this.islands) {
+                    epoch.add(executor.submit(() -> island.evolveUntil(target)));
+                }
+
+                // Every island finishes the epoch, so the earliest solution does not depend on timing.
+                GeneticAlgorithm solved = null;
+                for (int i = 0; i < epoch.size(); i++) {
+                    GeneticAlgorithm island = this.islands.get(i);
+                    if (await(epoch.get(i)) && (solved == null || island.getGenerationCount() < solved.getGenerationCount())) {
+                        solved = island;
+                    }
+                }
+                if (solved != null) {
+                    this.generationCount = solved.getGenerationCount();
+                    System.out.println("Solution found in " + this.generationCount + " generations");
+                    return solved.getFittest();
+                }
+
+                if (this.stopRequested) {
+                    // The islands stopped wherever they were when the request came in.
+                    for (GeneticAlgorithm island : this.islands) {
+                        this.generationCount = Math.max(this.generationCount, island.getGenerationCount());
+                    }
+                    break;
+                }
+                this.generationCount = target;
+                afterEpoch.accept(target);
+                if (target >= maxGeneration) {
+                    break;
+                }
+                this.migrate();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (this.stopRequested) {
+            System.out.println("Stopped after " + this.generationCount + " generations");
+        } else {
+            System.out.println("No solution found in " + maxGeneration + " generations");
+        }
+        Individual fittest = null;
+        for (GeneticAlgorithm island : this.islands) {
+            Individual candidate = island.getFittest();
+            if (fittest == null || candidate.getFitness() > fittest.getFitness()) {
+                fittest = candidate;
+            }
+        }
+        return fittest;
+    }
+
+    /**
+     * Sends copies of each island's fittest individuals to other islands.
+     * <p>
+     * An island that receives more migrants than the migration size keeps the fittest ones.
+     * </p>
+     */
+    private void migrate() {
+        int count = this.islands.size();
+        int migrationSize = config.getMigrationSize();
+
+        List<List<Individual>> incoming = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            incoming.add(new ArrayList<>());
+        }
+
+        for (int source = 0; source < count; source++) {
+            List<Individual> emigrants = this.islands.get(source).copyFittest(migrationSize);
+            switch (config.getMigrationTopology()) {
+                case RING -> incoming.get((source + 1) % count).addAll(emigrants);
+                case RANDOM -> {
+                    int destination = this.migrationRandom.nextInt(count - 1);
+                    if (destination >= source) {
+                        destination++;
+                    }
+                    incoming.get(destination).addAll(emigrants);
+                }
+                case FULLY_CONNECTED -> {
+                    for (int destination = 0; destination < count; destination++) {
+                        if (destination != source) {
+                            // Every destination needs its own copies.
+                            for (Individual emigrant : emigrants) {
+                                incoming.get(destination).add(copyOf(emigrant));
+                            }
+                        }
+                    }
+                }
+                default -> throw new UnsupportedOperationException(
+                        "Unknown migration topology: " + config.getMigrationTopology()
+                );
+            }
+        }
+
+        for (int destination = 0; destination < count; destination++) {
+            List<Individual> migrants = incoming.get(destination);
+            migrants.sort(Comparator.comparingInt(Individual::getFitness).reversed());
+            this.islands.get(destination).acceptMigrants(migrants.subList(0, Math.min(migrationSize, migrants.size())));
+        }
+    }
+
+    private static Individual copyOf(Individual individual) {
+        Individual copy = new Individual(new Genome(individual.getGenomeLength()));
+        copy.copyFrom(individual);
+        return copy;
+    }
+
+    private static boolean await(Future<Boolean> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an island", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Island failed to evolve", e.getCause());
+        }
+    }
+}
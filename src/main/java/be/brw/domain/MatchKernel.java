@@ -0,0 +1,52 @@
+package be.brw.domain;
+
+/**
+ * Counts the matching genes of two packed genomes, word by word.
+ * <p>
+ * The implementation used by {@link Genome#countMatches(Genome)} is picked once, when this
+ * interface is first used: the {@link VectorMatchKernel} if the {@code jdk.incubator.vector}
+ * module was added to the JVM (with {@code --add-modules jdk.incubator.vector}), otherwise the
+ * {@link ScalarMatchKernel}. Both return exactly the same counts.
+ * </p>
+ */
+interface MatchKernel {
+
+    /**
+     * The portable kernel, available on every JVM.
+     */
+    MatchKernel SCALAR = new ScalarMatchKernel();
+    /**
+     * The kernel used by {@link Genome#countMatches(Genome)}.
+     */
+    MatchKernel BEST = MatchKernel.load();
+
+    /**
+     * Counts the positions {@code i < length} at which the two packed bitstrings hold the same bit.
+     *
+     * @param a The words of the first genome; at least {@code wordCount(length)} of them.
+     * @param b The words of the second genome; at least {@code wordCount(length)} of them.
+     * @param length The number of genes to compare.
+     * @return The number of matching positions.
+     */
+    int countMatches(long[] a, long[] b, int length);
+
+    /**
+     * Loads the Vector API kernel when its module is present, falling back to the scalar kernel.
+     * <p>
+     * The vector kernel is loaded reflectively, so that this class, and the rest of the
+     * domain, still load on a JVM without the incubator module.
+     * </p>
+     */
+    private static MatchKernel load() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (MatchKernel) Class.forName("be.brw.domain.VectorMatchKernel")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                System.err.println("Vector API kernel unavailable, counting matches with the scalar kernel: " + e);
+            }
+        }
+        return SCALAR;
+    }
+}
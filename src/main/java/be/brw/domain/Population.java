@@ -4,9 +4,10 @@ package be.brw.domain;
 import be.brw.domain.strategy.LengthPunishingStrategy;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 
 /**
@@ -20,7 +21,8 @@ import java.util.Random;
 public class Population {
 
     /**
-     * A random number generator for creating random genomes.
+     * A random number generator for creating random genomes, or {@code null} if the population
+     * was built from existing individuals.
      */
     private final Random random;
 
@@ -37,6 +39,33 @@ public class Population {
      * The factor by which the length-difference penalty is multiplied.
      */
     private final double lengthPunishingFactor;
+    /**
+     * The pool used for parallel fitness evaluation, or {@code null} to always evaluate sequentially.
+     */
+    private final ForkJoinPool evaluationPool;
+    /**
+     * The minimum population size for which fitness evaluation is split across {@link #evaluationPool}.
+     */
+    private final int parallelThreshold;
+    /**
+     * A custom fitness function scoring the population in batches, or {@code null} for the
+     * built-in bitstring matching, which is evaluated incrementally.
+     */
+    private final FitnessFunction fitnessFunction;
+    /**
+     * Scratch space of the batch evaluation by a custom {@link #fitnessFunction}: the individuals to
+     * score, their words, reused copies of off-heap words, their lengths and the returned fitness.
+     * Kept between evaluations, so that the arena's populations score every generation without allocating.
+     */
+    private Individual[] batchPending;
+    private long[][] batchGenomes;
+    private long[][] batchCopies;
+    private int[] batchLengths;
+    private int[] batchFitness;
+    /**
+     * The fittest individual and whether the solution was found, as of the last evaluation.
+     */
+    private final Summary summary = new Summary();
 
     /**
      * Constructs a new population with randomly generated individuals of variable genome length.
@@ -54,6 +83,9 @@ public class Population {
         this.random = new Random(seed);
         this.lengthPunishingStrategy = lengthPunishingStrategy;
         this.lengthPunishingFactor = lengthPunishingFactor;
+        this.evaluationPool = null;
+        this.parallelThreshold = Integer.MAX_VALUE;
+        this.fitnessFunction = null;
         this.initPopulation(size, minGenomeLength, maxGenomeLength);
         this.updateFitness(solution);
     }
@@ -73,6 +105,9 @@ public class Population {
         this.random = new Random(seed);
         this.lengthPunishingStrategy = lengthPunishingStrategy;
         this.lengthPunishingFactor = lengthPunishingFactor;
+        this.evaluationPool = null;
+        this.parallelThreshold = Integer.MAX_VALUE;
+        this.fitnessFunction = null;
         this.initPopulation(size, defaultGenomeLength);
         this.updateFitness(solution);
     }
@@ -89,13 +124,93 @@ public class Population {
      * @param lengthPunishingFactor The multiplier for the length penalty.
      */
     public Population(List<Byte> solution, List<Individual> individuals, int seed, LengthPunishingStrategy lengthPunishingStrategy, double lengthPunishingFactor){
-        this.random = new Random(seed);
-        this.individuals = individuals;
-        this.lengthPunishingStrategy = lengthPunishingStrategy;
-        this.lengthPunishingFactor = lengthPunishingFactor;
+        this(Genome.fromList(solution), individuals, seed, lengthPunishingStrategy, lengthPunishingFactor);
+    }
+
+    /**
+     * Constructs a population from an existing list of individuals.
+     * The fitness of each individual in the provided list is immediately calculated
+     * against the given packed solution.
+     *
+     * @param solution The packed target bitstring used for fitness calculation.
+     * @param individuals The pre-existing list of individuals to form the population.
+     * @param seed The seed for the random number generator.
+     * @param lengthPunishingStrategy The strategy for penalizing genome length differences.
+     * @param lengthPunishingFactor The multiplier for the length penalty.
+     */
+    public Population(Genome solution, List<Individual> individuals, int seed, LengthPunishingStrategy lengthPunishingStrategy, double lengthPunishingFactor){
+        this(solution, individuals, seed, lengthPunishingStrategy, lengthPunishingFactor, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructs a population from an existing list of individuals, evaluating their fitness
+     * in parallel when the population is large enough.
+     * <p>
+     * Populations with at least {@code parallelThreshold} individuals are split into chunks
+     * that are scored on {@code evaluationPool}; smaller ones are scored sequentially.
+     * </p>
+     *
+     * @param solution The packed target bitstring used for fitness calculation.
+     * @param individuals The pre-existing list of individuals to form the population.
+     * @param seed Unused: the individuals are given, so no random genomes are generated.
+     * @param lengthPunishingStrategy The strategy for penalizing genome length differences.
+     * @param lengthPunishingFactor The multiplier for the length penalty.
+     * @param evaluationPool The pool to evaluate on, or {@code null} to always evaluate sequentially.
+     * @param parallelThreshold The minimum population size for parallel evaluation.
+     */
+    public Population(Genome solution, List<Individual> individuals, int seed, LengthPunishingStrategy lengthPunishingStrategy, double lengthPunishingFactor, ForkJoinPool evaluationPool, int parallelThreshold){
+        this(solution, individuals, new BitstringFitness(solution, lengthPunishingStrategy, lengthPunishingFactor), evaluationPool, parallelThreshold);
+    }
+
+    /**
+     * Constructs a population from an existing list of individuals, scored by the given fitness function.
+     * <p>
+     * A {@link BitstringFitness} is evaluated incrementally, in parallel when the population
+     * reaches {@code parallelThreshold} individuals. Any other function receives every
+     * individual that needs scoring in a single batch, on the calling thread; it is up to the
+     * function to spread the work.
+     * </p>
+     *
+     * @param solution The packed target bitstring; individuals already evaluated against this instance are skipped.
+     * @param individuals The pre-existing list of individuals to form the population.
+     * @param fitnessFunction The function scoring the individuals.
+     * @param evaluationPool The pool to evaluate on, or {@code null} to always evaluate sequentially.
+     * @param parallelThreshold The minimum population size for parallel evaluation.
+     */
+    public Population(Genome solution, List<Individual> individuals, FitnessFunction fitnessFunction, ForkJoinPool evaluationPool, int parallelThreshold){
+        this(individuals, fitnessFunction, evaluationPool, parallelThreshold);
         this.updateFitness(solution);
     }
 
+    /**
+     * Constructs a population from an existing list of individuals without evaluating them.
+     * <p>
+     * Used for the buffers of a {@link PopulationArena}, whose individuals are only bred after
+     * the population has been created; they are scored by the first call to {@link #updateFitness(Genome)}.
+     * </p>
+     *
+     * @param individuals The pre-existing list of individuals to form the population.
+     * @param fitnessFunction The function scoring the individuals.
+     * @param evaluationPool The pool to evaluate on, or {@code null} to always evaluate sequentially.
+     * @param parallelThreshold The minimum population size for parallel evaluation.
+     */
+    Population(List<Individual> individuals, FitnessFunction fitnessFunction, ForkJoinPool evaluationPool, int parallelThreshold){
+        // Individuals are given, so no random genomes will be generated.
+        this.random = null;
+        this.individuals = individuals;
+        if (fitnessFunction instanceof BitstringFitness bitstring) {
+            this.lengthPunishingStrategy = bitstring.getLengthPunishingStrategy();
+            this.lengthPunishingFactor = bitstring.getLengthPunishingFactor();
+            this.fitnessFunction = null;
+        } else {
+            this.lengthPunishingStrategy = null;
+            this.lengthPunishingFactor = 0;
+            this.fitnessFunction = fitnessFunction;
+        }
+        this.evaluationPool = evaluationPool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
     /**
      * Calculates and updates the fitness for every individual in the population.
      * <p>
@@ -107,27 +222,213 @@ public class Population {
      * @param solution The target bitstring to compare against.
      */
     public void updateFitness(List<Byte> solution) {
-        for (Individual individual : this.individuals) {
-            List<Byte> genome = individual.getGenome();
+        this.updateFitness(Genome.fromList(solution));
+    }
 
-            int fitness = 0;
-            // Determine the comparison length to avoid IndexOutOfBoundsException
-            int comparisonLength = Math.min(solution.size(), genome.size());
+    /**
+     * Calculates and updates the fitness for every individual in the population.
+     * <p>
+     * Matching genes are counted a word (64 genes) at a time on the packed genomes,
+     * see {@link Genome#countMatches(Genome)}. Individuals that are not dirty reuse the match
+     * count tracked through their gene edits instead. The score is then penalized based on the
+     * difference in length between the individual's genome and the target solution.
+     * </p>
+     * <p>
+     * Individuals already evaluated against this same solution instance whose genome has not
+     * changed since are skipped. Populations that share a solution instance must therefore use
+     * the same length punishing settings, as every generation of a {@link GeneticAlgorithm} does.
+     * </p>
+     * <p>
+     * If this population was given an evaluation pool and holds at least the parallel
+     * threshold of individuals, the work is split across the pool.
+     * </p>
+     * <p>
+     * Populations scored by a custom {@link FitnessFunction} hand the individuals that need
+     * scoring to it in one batch; see {@link #Population(Genome, List, FitnessFunction, ForkJoinPool, int)}.
+     * </p>
+     *
+     * <p>
+     * While scoring, the fittest individual and whether one of them equals the solution are
+     * recorded, so {@link #getFittest()} and {@link #isSolved()} do not need another pass.
+     * </p>
+     *
+     * @param solution The packed target bitstring to compare against.
+     */
+    public void updateFitness(Genome solution) {
+        int size = this.individuals.size();
+        Summary summary = this.summary;
+        summary.reset(solution);
+        if (this.fitnessFunction != null) {
+            this.updateFitnessBatch(solution);
+        } else if (this.evaluationPool != null && size >= this.parallelThreshold) {
+            // Aim for a few chunks per worker so uneven genome lengths still balance out.
+            int chunkSize = Math.max(1, size / (this.evaluationPool.getParallelism() * 4));
+            EvaluationTask task = new EvaluationTask(solution, 0, size, chunkSize);
+            this.evaluationPool.invoke(task);
+            summary.add(task.summary);
+        } else {
+            this.updateFitness(solution, 0, size, summary);
+        }
+    }
+
+    /**
+     * Scores the individuals in {@code [from, to)} sequentially and records them in the summary.
+     */
+    private void updateFitness(Genome solution, int from, int to, Summary summary) {
+        for (int i = from; i < to; i++) {
+            Individual individual = this.individuals.get(i);
+            if (individual.isEvaluated(solution)) {
+                // Unchanged since its last evaluation, e.g. a survivor that was not mutated.
+                summary.add(individual);
+                continue;
+            }
+            // Individuals that were only flipped or extended since their last scan keep an exact match count.
+            int matches = individual.getMatchCount(solution);
+            if (matches < 0) {
+                matches = individual.getPackedGenome().countMatches(solution);
+                individual.setMatchCount(solution, matches);
+            }
+            individual.setEvaluatedFitness(this.computeFitness(solution, individual.getGenomeLength(), matches));
+            summary.scored++;
+            summary.add(individual);
+        }
+    }
 
-            for (int i = 0; i < comparisonLength; i++) {
-                if (solution.get(i).equals(genome.get(i))) {
-                    fitness++;
+    /**
+     * Scores every individual that changed since its last evaluation with the custom fitness function, in one batch.
+     */
+    private void updateFitnessBatch(Genome solution) {
+        int size = this.individuals.size();
+        if (this.batchPending == null || this.batchPending.length < size) {
+            this.batchPending = new Individual[size];
+            this.batchGenomes = new long[size][];
+            this.batchCopies = new long[size][];
+            this.batchLengths = new int[size];
+            this.batchFitness = new int[size];
+        }
+        Individual[] pending = this.batchPending;
+        long[][] genomes = this.batchGenomes;
+        int[] lengths = this.batchLengths;
+        int count = 0;
+        for (Individual individual : this.individuals) {
+            if (!individual.isEvaluated(solution)) {
+                Genome genome = individual.getPackedGenome();
+                pending[count] = individual;
+                if (genome.isOffHeap()) {
+                    // The function takes arrays, so off-heap genes are copied into a reused one.
+                    this.batchCopies[count] = genome.copyWords(this.batchCopies[count]);
+                    genomes[count] = this.batchCopies[count];
+                } else {
+                    genomes[count] = genome.words();
                 }
+                lengths[count] = individual.getGenomeLength();
+                count++;
+            }
+        }
+        if (count > 0) {
+            int[] fitness = this.batchFitness;
+            this.fitnessFunction.evaluate(genomes, lengths, count, fitness);
+            for (int i = 0; i < count; i++) {
+                if (fitness[i] < 0) {
+                    throw new IllegalStateException("Fitness function " + this.fitnessFunction.getClass().getName() + " returned a negative fitness: " + fitness[i]);
+                }
+                pending[i].setEvaluatedFitness(solution, fitness[i]);
+                // Do not keep the individual reachable from the scratch space.
+                pending[i] = null;
+            }
+            this.summary.scored = count;
+        }
+        for (Individual individual : this.individuals) {
+            this.summary.add(individual);
+        }
+    }
+
+    /**
+     * Scores a genome from its match count with the built-in bitstring fitness.
+     */
+    private int computeFitness(Genome solution, int genomeLength, int matches) {
+        return BitstringFitness.score(matches, genomeLength, solution.size(), this.lengthPunishingStrategy, this.lengthPunishingFactor);
+    }
+
+    /**
+     * Fork/join task that splits a range of individuals in halves until it is small enough
+     * to score sequentially. Each task summarizes its own range; halves are merged left first,
+     * so ties resolve to the same individual as a sequential evaluation.
+     */
+    private final class EvaluationTask extends RecursiveAction {
+        private final Genome solution;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final Summary summary = new Summary();
+
+        EvaluationTask(Genome solution, int from, int to, int chunkSize) {
+            this.solution = solution;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.summary.reset(solution);
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= this.chunkSize) {
+                Population.this.updateFitness(this.solution, this.from, this.to, this.summary);
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            EvaluationTask left = new EvaluationTask(this.solution, this.from, middle, this.chunkSize);
+            EvaluationTask right = new EvaluationTask(this.solution, middle, this.to, this.chunkSize);
+            invokeAll(left, right);
+            this.summary.add(left.summary);
+            this.summary.add(right.summary);
+        }
+    }
+
+    /**
+     * The fittest individual of the individuals seen so far, and whether one of them equals the solution.
+     */
+    private static final class Summary {
+        private Genome solution;
+        private Individual fittest;
+        private boolean solved;
+        /**
+         * The number of individuals scored rather than skipped as unchanged.
+         */
+        private int scored;
+
+        /**
+         * Forgets every individual seen, to summarize an evaluation against the given solution.
+         */
+        void reset(Genome solution) {
+            this.solution = solution;
+            this.fittest = null;
+            this.solved = false;
+            this.scored = 0;
+        }
+
+        /**
+         * Records an evaluated individual. Only a strictly higher fitness replaces the fittest,
+         * so the first of equally fit individuals is kept.
+         */
+        void add(Individual individual) {
+            if (this.fittest == null || individual.getFitness() > this.fittest.getFitness()) {
+                this.fittest = individual;
             }
+            if (!this.solved && individual.matchesSolution(this.solution)) {
+                this.solved = true;
+            }
+        }
 
-            // Calculate the penalty for length difference.
-            int penalty = 0;
-            switch (lengthPunishingStrategy) {
-                case LINEAR -> penalty = Math.abs(genome.size() - solution.size());
-                case EXPONENTIAL -> penalty = (int) Math.pow(genome.size() - solution.size(), 2);
+        /**
+         * Records everything another summary has seen, after the individuals seen by this one.
+         */
+        void add(Summary other) {
+            if (other.fittest != null && (this.fittest == null || other.fittest.getFitness() > this.fittest.getFitness())) {
+                this.fittest = other.fittest;
             }
-            fitness = (int) Math.max(0, fitness - lengthPunishingFactor * penalty);
-            individual.setFitness(fitness);
+            this.solved |= other.solved;
+            this.scored += other.scored;
         }
     }
 
@@ -149,7 +450,7 @@ public class Population {
         for (int i = 0; i < size; i++) {
             int targetLength = random.nextInt(maxGenomeLength - minGenomeLength + 1) + minGenomeLength;
 
-            List<Byte> genome = this.generateRandomGenome(targetLength);
+            Genome genome = this.generateRandomGenome(targetLength);
             Individual individual = new Individual(genome);
             this.individuals.add(individual);
         }
@@ -162,17 +463,17 @@ public class Population {
     private void initPopulation(int size, int defaultGenomeLength){
         this.individuals = new ArrayList<>();
         for (int i = 0; i < size; i++) {
-            List<Byte> genome = this.generateRandomGenome(defaultGenomeLength);
+            Genome genome = this.generateRandomGenome(defaultGenomeLength);
             Individual individual = new Individual(genome);
             this.individuals.add(individual);
         }
     }
 
     /**
-     * Generates a random genome (list of bytes) of a specified length.
+     * Generates a random packed genome of a specified length.
      */
-    private List<Byte> generateRandomGenome(int genomeLength) {
-        List<Byte> genome = new ArrayList<>();
+    private Genome generateRandomGenome(int genomeLength) {
+        Genome genome = new Genome(genomeLength);
         for (int j = 0; j < genomeLength; j++) {
             genome.add((byte) random.nextInt(2));
         }
@@ -192,16 +493,33 @@ public class Population {
     }
 
     /**
-     * Finds and returns the individual with the highest fitness score in the population.
+     * Returns the individual with the highest fitness score, as recorded by the last evaluation.
+     * Of equally fit individuals, the first one is returned.
      *
      * @return The fittest {@link Individual}.
      * @throws java.util.NoSuchElementException if the population is empty.
      */
     public Individual getFittest() {
-        if (individuals == null || individuals.isEmpty()) {
+        if (this.summary.fittest == null) {
             throw new java.util.NoSuchElementException("Cannot find fittest individual in an empty population.");
         }
-        return java.util.Collections.max(individuals, Comparator.comparingInt(Individual::getFitness));
+        return this.summary.fittest;
+    }
+
+    /**
+     * Returns the number of individuals the last evaluation scored, as opposed to skipping them as unchanged.
+     */
+    int getScoredCount() {
+        return this.summary.scored;
+    }
+
+    /**
+     * Returns whether an individual's genome equalled the solution at the last evaluation.
+     *
+     * @return {@code true} if the population contains a perfect solution.
+     */
+    public boolean isSolved() {
+        return this.summary.solved;
     }
 
     /**
@@ -0,0 +1,200 @@
+package be.brw.domain;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Two preallocated generations of individuals for the arena engine mode of {@link GeneticAlgorithm}.
+ * <p>
+ * Both buffers hold {@code populationSize} individuals whose genomes are allocated up front with
+ * room for the longest expected genome. Each generation is written into the {@link #next()} buffer
+ * by copying survivors and breeding children in place, after which {@link #swap()} makes it the
+ * {@link #current()} one. The arena also owns the scratch space used by selection, so that once
+ * the genomes have reached their working size, a generation allocates nothing. Each buffer keeps
+ * its {@link Population} across generations, so that a custom fitness function is handed reused
+ * batch arrays as well.
+ * </p>
+ * <p>
+ * The genomes of each buffer can be kept off-heap, in one {@link GenomeStore} per buffer: the
+ * individuals then only hold a view of their slot, and the genes stay out of the Java heap.
+ * </p>
+ */
+final class PopulationArena {
+
+    /**
+     * The generation being evolved from.
+     */
+    private Buffer current;
+    /**
+     * The generation being written.
+     */
+    private Buffer next;
+
+    /**
+     * Scratch array holding the current generation ranked by descending fitness.
+     */
+    private final Individual[] ranking;
+    /**
+     * Orders individuals by descending fitness, for fitness values too large to count.
+     */
+    private static final Comparator<Individual> BY_DESCENDING_FITNESS = Comparator.comparingInt(Individual::getFitness).reversed();
+
+    /**
+     * Scratch buckets for the counting sort behind {@link #rankByFitness()}.
+     */
+    private int[] fitnessCounts;
+    /**
+     * The largest fitness ranked with a counting sort; larger values fall back to a comparison sort.
+     */
+    private final int maxCountedFitness;
+    /**
+     * Reusable roulette wheel for ROULETTE selection.
+     */
+    private final RouletteWheel wheel;
+
+    /**
+     * Creates an arena whose current generation is a copy of the given individuals.
+     *
+     * @param initial The first generation, already evaluated.
+     * @param eliteCount The number of survivors copied into every new generation.
+     * @param genomeCapacity The number of genes every genome can hold before it has to grow.
+     * @param offHeap Whether the genomes are kept in off-heap slots rather than in heap arrays.
+     * @param populationFactory Wraps a buffer's individuals in a {@link Population} used to evaluate them.
+     *                          It must not evaluate them yet: the buffers are only filled once a generation is bred.
+     */
+    PopulationArena(List<Individual> initial, int eliteCount, int genomeCapacity, boolean offHeap, Function<List<Individual>, Population> populationFactory) {
+        int size = initial.size();
+        this.current = new Buffer(size, eliteCount, genomeCapacity, offHeap);
+        this.next = new Buffer(size, eliteCount, genomeCapacity, offHeap);
+        for (int i = 0; i < size; i++) {
+            this.current.individuals[i].copyFrom(initial.get(i));
+        }
+        this.current.population = populationFactory.apply(this.current.view);
+        this.next.population = populationFactory.apply(this.next.view);
+
+        this.ranking = new Individual[size];
+        this.fitnessCounts = new int[genomeCapacity + 1];
+        this.maxCountedFitness = Math.max(genomeCapacity, 4 * size);
+        this.wheel = new RouletteWheel(size);
+    }
+
+    /**
+     * Returns the individuals of the generation being evolved from.
+     */
+    Individual[] current() {
+        return this.current.individuals;
+    }
+
+    /**
+     * Returns the generation being evolved from as a list.
+     */
+    List<Individual> currentView() {
+        return this.current.view;
+    }
+
+    /**
+     * Returns the population wrapping the generation being evolved from.
+     */
+    Population currentPopulation() {
+        return this.current.population;
+    }
+
+    /**
+     * Returns the individuals of the generation being written.
+     */
+    Individual[] next() {
+        return this.next.individuals;
+    }
+
+    /**
+     * Returns the survivors already copied into the generation being written, as a list.
+     */
+    List<Individual> nextSurvivors() {
+        return this.next.survivorView;
+    }
+
+    /**
+     * Returns the reusable roulette wheel.
+     */
+    RouletteWheel wheel() {
+        return this.wheel;
+    }
+
+    /**
+     * Makes the generation that was just written the current one.
+     */
+    void swap() {
+        Buffer written = this.next;
+        this.next = this.current;
+        this.current = written;
+    }
+
+    /**
+     * Ranks the current generation by descending fitness.
+     * <p>
+     * Bitstring fitness values are small non-negative integers, so a counting sort ranks the whole
+     * generation in O(N + maxFitness) without allocating. Equal fitness keeps the current order,
+     * like the stable sort used by ELITISM selection.
+     * </p>
+     * <p>
+     * A custom {@link FitnessFunction} may return values far larger than the population size
+     * or genome length; those generations are ranked with a stable comparison sort instead.
+     * </p>
+     *
+     * @return The ranked individuals; the array is reused by the next call.
+     */
+    Individual[] rankByFitness() {
+        Individual[] individuals = this.current.individuals;
+        int maxFitness = 0;
+        for (Individual individual : individuals) {
+            maxFitness = Math.max(maxFitness, individual.getFitness());
+        }
+        if (maxFitness > this.maxCountedFitness) {
+            System.arraycopy(individuals, 0, this.ranking, 0, individuals.length);
+            Arrays.sort(this.ranking, BY_DESCENDING_FITNESS);
+            return this.ranking;
+        }
+        if (maxFitness + 1 > this.fitnessCounts.length) {
+            this.fitnessCounts = new int[maxFitness + 1];
+        }
+        int[] counts = this.fitnessCounts;
+        Arrays.fill(counts, 0, maxFitness + 1, 0);
+
+        for (Individual individual : individuals) {
+            counts[individual.getFitness()]++;
+        }
+        // Turn the counts into start offsets, highest fitness first.
+        int offset = 0;
+        for (int fitness = maxFitness; fitness >= 0; fitness--) {
+            int count = counts[fitness];
+            counts[fitness] = offset;
+            offset += count;
+        }
+        for (Individual individual : individuals) {
+            this.ranking[counts[individual.getFitness()]++] = individual;
+        }
+        return this.ranking;
+    }
+
+    /**
+     * One generation worth of preallocated individuals, with the list views handed to selection.
+     */
+    private static final class Buffer {
+        private final Individual[] individuals;
+        private final List<Individual> view;
+        private final List<Individual> survivorView;
+        private Population population;
+
+        Buffer(int size, int eliteCount, int genomeCapacity, boolean offHeap) {
+            this.individuals = new Individual[size];
+            GenomeStore store = offHeap ? new GenomeStore(size, genomeCapacity) : null;
+            for (int i = 0; i < size; i++) {
+                this.individuals[i] = new Individual(store != null ? store.genome(i) : new Genome(genomeCapacity));
+            }
+            this.view = Arrays.asList(this.individuals);
+            this.survivorView = this.view.subList(0, Math.min(eliteCount, size));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package be.brw.domain;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Fitness-proportionate sampling over a fixed list of individuals.
+ * <p>
+ * The cumulative fitness of the list is computed once when the wheel is built, after which
+ * every spin is a binary search: O(N) to build, O(log N) per pick. The wheel reflects the
+ * fitness values at the time it was built and must be rebuilt once they change; rebuilding
+ * reuses the wheel's storage.
+ * </p>
+ */
+final class RouletteWheel {
+
+    /**
+     * The individuals on the wheel, in the order of {@link #cumulativeFitness}.
+     */
+    private List<Individual> individuals;
+    /**
+     * {@code cumulativeFitness[i]} is the total fitness of individuals {@code 0..i}; only the
+     * first {@link #size} entries are used.
+     */
+    private long[] cumulativeFitness;
+    /**
+     * The number of individuals on the wheel.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty wheel with room for {@code capacity} individuals before it has to grow.
+     *
+     * @param capacity The expected number of individuals.
+     */
+    RouletteWheel(int capacity) {
+        this.individuals = List.of();
+        this.cumulativeFitness = new long[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Builds a wheel over the current fitness of the given individuals.
+     *
+     * @param individuals The individuals to sample from; the list must not change while the wheel is used.
+     * @return A new roulette wheel.
+     */
+    static RouletteWheel of(List<Individual> individuals) {
+        RouletteWheel wheel = new RouletteWheel(individuals.size());
+        wheel.rebuild(individuals);
+        return wheel;
+    }
+
+    /**
+     * Rebuilds this wheel over the current fitness of the given individuals, reusing its storage.
+     *
+     * @param individuals The individuals to sample from; the list must not change while the wheel is used.
+     */
+    void rebuild(List<Individual> individuals) {
+        int count = individuals.size();
+        if (count > this.cumulativeFitness.length) {
+            this.cumulativeFitness = new long[count];
+        }
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += individuals.get(i).getFitness();
+            this.cumulativeFitness[i] = total;
+        }
+        this.individuals = individuals;
+        this.size = count;
+    }
+
+    /**
+     * Picks an individual with a probability proportional to its fitness.
+     * <p>
+     * Individuals with a fitness of 0 are never picked, unless every individual has a
+     * fitness of 0, in which case the pick is uniform.
+     * </p>
+     *
+     * @param random The random number generator to spin with.
+     * @return The picked individual.
+     */
+    Individual spin(RandomGenerator random) {
+        int size = this.size;
+        long total = size == 0 ? 0 : this.cumulativeFitness[size - 1];
+        if (total == 0) {
+            return this.individuals.get(random.nextInt(size));
+        }
+
+        long pick = total <= Integer.MAX_VALUE
+                ? random.nextInt((int) total)
+                : (long) (random.nextDouble() * total);
+
+        // First individual whose cumulative fitness exceeds the pick.
+        int index = Arrays.binarySearch(this.cumulativeFitness, 0, size, pick + 1);
+        if (index < 0) {
+            index = -index - 1;
+        } else {
+            // Zero-fitness neighbours share the same sum; step back to the first of them.
+            while (index > 0 && this.cumulativeFitness[index - 1] == pick + 1) {
+                index--;
+            }
+        }
+        return this.individuals.get(index);
+    }
+}
@@ -0,0 +1,35 @@
+package be.brw.domain;
+
+/**
+ * Counts matching genes one word at a time with {@link Long#bitCount(long)}.
+ * <p>
+ * Whole words are compared with {@code bitCount(~(a ^ b))}; the last, partial word is masked so
+ * that padding bits never count as matches.
+ * </p>
+ */
+final class ScalarMatchKernel implements MatchKernel {
+
+    @Override
+    public int countMatches(long[] a, long[] b, int length) {
+        int fullWords = length >>> Genome.ADDRESS_BITS;
+
+        int matches = 0;
+        for (int i = 0; i < fullWords; i++) {
+            matches += Long.bitCount(~(a[i] ^ b[i]));
+        }
+        return matches + tailMatches(a, b, length);
+    }
+
+    /**
+     * Counts the matches in the last, partial word, if there is one.
+     */
+    static int tailMatches(long[] a, long[] b, int length) {
+        int tailBits = length & (Genome.WORD_SIZE - 1);
+        if (tailBits == 0) {
+            return 0;
+        }
+        int lastWord = length >>> Genome.ADDRESS_BITS;
+        long tailMask = (1L << tailBits) - 1;
+        return Long.bitCount(~(a[lastWord] ^ b[lastWord]) & tailMask);
+    }
+}
@@ -0,0 +1,51 @@
+package be.brw.domain;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Counts matching genes several words at a time with the Vector API.
+ * <p>
+ * Each step loads one vector of words from both genomes, XORs them lane-wise and adds the
+ * per-lane population counts of the differences to an accumulator. The accumulator is reduced
+ * once at the end, and the matches are the compared bits minus the differences. Words that do
+ * not fill a whole vector, and the last partial word, are handled like in
+ * {@link ScalarMatchKernel}.
+ * </p>
+ * <p>
+ * Note: This class needs the {@code jdk.incubator.vector} module and must only be loaded
+ * through {@link MatchKernel#BEST}, which checks that the module is present.
+ * </p>
+ */
+final class VectorMatchKernel implements MatchKernel {
+
+    /**
+     * The widest vector shape the CPU supports, e.g. 4 longs with AVX2 and 8 with AVX-512.
+     */
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    @Override
+    public int countMatches(long[] a, long[] b, int length) {
+        int fullWords = length >>> Genome.ADDRESS_BITS;
+        int vectorWords = SPECIES.loopBound(fullWords);
+        if (vectorWords == 0) {
+            // Too short to fill a single vector.
+            return MatchKernel.SCALAR.countMatches(a, b, length);
+        }
+
+        LongVector differences = LongVector.zero(SPECIES);
+        int i = 0;
+        for (; i < vectorWords; i += SPECIES.length()) {
+            LongVector va = LongVector.fromArray(SPECIES, a, i);
+            LongVector vb = LongVector.fromArray(SPECIES, b, i);
+            differences = differences.add(va.lanewise(VectorOperators.XOR, vb).lanewise(VectorOperators.BIT_COUNT));
+        }
+        int matches = vectorWords * Genome.WORD_SIZE - (int) differences.reduceLanes(VectorOperators.ADD);
+
+        for (; i < fullWords; i++) {
+            matches += Long.bitCount(~(a[i] ^ b[i]));
+        }
+        return matches + ScalarMatchKernel.tailMatches(a, b, length);
+    }
+}
@@ -0,0 +1,5 @@
+package be.brw.domain.strategy;
+
+public enum DeduplicationStrategy {
+    NONE, SHARE_FITNESS, REPLACE_RANDOM
+}
@@ -0,0 +1,5 @@
+package be.brw.domain.strategy;
+
+public enum MigrationTopology {
+    RING, RANDOM, FULLY_CONNECTED
+}
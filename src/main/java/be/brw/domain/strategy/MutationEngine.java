@@ -0,0 +1,5 @@
+package be.brw.domain.strategy;
+
+public enum MutationEngine {
+    PER_INDIVIDUAL, BATCH, BATCH_PER_BIT
+}
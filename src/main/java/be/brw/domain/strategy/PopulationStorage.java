@@ -0,0 +1,5 @@
+package be.brw.domain.strategy;
+
+public enum PopulationStorage {
+    HEAP, OFF_HEAP, BIT_SLICED
+}
@@ -0,0 +1,5 @@
+package be.brw.domain.strategy;
+
+public enum UniformCrossoverMode {
+    BALANCED, WORD_MASK
+}